@@ -0,0 +1,18 @@
+package com.foroescolar.config.flyway;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    /**
+     * Las bases existentes se crearon con ddl-auto y no tienen historial de Flyway: se registran
+     * en la versión base (1) y a partir de ahí se aplican las migraciones versionadas
+     */
+    @Bean
+    public FlywayConfigurationCustomizer baselineOnMigrate() {
+        return configuration -> configuration.baselineOnMigrate(true);
+    }
+}
@@ -0,0 +1,91 @@
+package com.foroescolar.config.flyway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migración única que fusiona las fechas repetidas creadas antes de la restricción única sobre
+ * fecha.fecha y crea esa restricción. Con duplicados, ddl-auto no pudo crearla al arrancar.
+ * <p>
+ * Para cada día repetido se conserva la fila de menor id. Si un estudiante tiene asistencias en
+ * varias de las filas repetidas, se conserva la registrada en último lugar (mayor id) y se eliminan
+ * las demás antes de reasignarlas, para no dejar dos asistencias del mismo día. En ese caso se vacía
+ * resumen_asistencia, que se reconstruye desde las asistencias al arrancar.
+ * <p>
+ * En una base nueva la tabla fecha todavía no existe (la crea Hibernate después, ya con la
+ * restricción) y la migración no hace nada. Las sentencias usan sintaxis de MySQL.
+ */
+@Slf4j
+@Component
+public class V2__DeduplicarFechas extends BaseJavaMigration {
+
+    private static final String EXISTE_TABLA =
+            "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?";
+
+    // Fila que se conserva para cada fecha repetida
+    private static final String CANONICAS =
+            "SELECT fecha, MIN(id) AS canonica FROM fecha GROUP BY fecha HAVING COUNT(*) > 1";
+
+    // Asistencias del mismo estudiante en filas distintas del mismo día: se conserva la última registrada
+    private static final String ELIMINAR_ASISTENCIAS_EN_CONFLICTO =
+            "DELETE a FROM asistencia a JOIN fecha f ON f.id = a.fecha_id " +
+            "JOIN (SELECT a2.estudiante_id, f2.fecha, MAX(a2.id) AS conservada " +
+            "      FROM asistencia a2 JOIN fecha f2 ON f2.id = a2.fecha_id " +
+            "      WHERE a2.estudiante_id IS NOT NULL " +
+            "      GROUP BY a2.estudiante_id, f2.fecha HAVING COUNT(DISTINCT a2.fecha_id) > 1) c " +
+            "ON c.estudiante_id = a.estudiante_id AND c.fecha = f.fecha AND a.id <> c.conservada";
+
+    private static final String REASIGNAR_ASISTENCIAS =
+            "UPDATE asistencia a JOIN fecha f ON f.id = a.fecha_id " +
+            "JOIN (" + CANONICAS + ") c ON c.fecha = f.fecha AND f.id <> c.canonica " +
+            "SET a.fecha_id = c.canonica";
+
+    private static final String ELIMINAR_DUPLICADAS =
+            "DELETE f FROM fecha f JOIN (" + CANONICAS + ") c ON c.fecha = f.fecha AND f.id <> c.canonica";
+
+    private static final String EXISTE_INDICE_UNICO =
+            "SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() " +
+            "AND table_name = 'fecha' AND column_name = 'fecha' AND non_unique = 0";
+
+    private static final String CREAR_INDICE_UNICO = "ALTER TABLE fecha ADD CONSTRAINT uk_fecha_fecha UNIQUE (fecha)";
+
+    private static final String VACIAR_RESUMEN = "DELETE FROM resumen_asistencia";
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        if (!existeTabla(jdbcTemplate, "fecha")) {
+            return;
+        }
+
+        if (existeTabla(jdbcTemplate, "asistencia")) {
+            int enConflicto = jdbcTemplate.update(ELIMINAR_ASISTENCIAS_EN_CONFLICTO);
+            if (enConflicto > 0) {
+                log.warn("Eliminadas {} asistencias repetidas del mismo estudiante y día", enConflicto);
+                if (existeTabla(jdbcTemplate, "resumen_asistencia")) {
+                    jdbcTemplate.update(VACIAR_RESUMEN);
+                }
+            }
+            jdbcTemplate.update(REASIGNAR_ASISTENCIAS);
+        }
+
+        int eliminadas = jdbcTemplate.update(ELIMINAR_DUPLICADAS);
+        if (eliminadas > 0) {
+            log.warn("Eliminadas {} fechas duplicadas; sus asistencias se reasignaron", eliminadas);
+        }
+
+        Integer indices = jdbcTemplate.queryForObject(EXISTE_INDICE_UNICO, Integer.class);
+        if (indices == null || indices == 0) {
+            jdbcTemplate.execute(CREAR_INDICE_UNICO);
+        }
+    }
+
+    private boolean existeTabla(JdbcTemplate jdbcTemplate, String tabla) {
+        Integer tablas = jdbcTemplate.queryForObject(EXISTE_TABLA, Integer.class, tabla);
+        return tablas != null && tablas > 0;
+    }
+}
@@ -0,0 +1,116 @@
+package com.foroescolar.config.redis;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.Subscription;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Canal compartido entre nodos para propagar invalidaciones de cachés en memoria.
+ * Cada canal es un stream de Redis ('cluster:<canal>'); los mensajes llevan el id del nodo
+ * que los publicó y cada nodo ignora los suyos, porque ya aplicó el cambio localmente.
+ * La publicación es asíncrona: un Redis caído no bloquea la petición, y los nodos remotos
+ * quedan acotados por el TTL de sus cachés.
+ */
+@Slf4j
+@Component
+public class ClusterEventStream {
+
+    // Canales
+    public static final String CANAL_ACCESO = "acceso";
+    public static final String CANAL_MATRIZ_ASISTENCIA = "asistencia.matriz";
+    public static final String CANAL_AUSENTISMO = "asistencia.ausentismo";
+    public static final String CANAL_BUSQUEDA = "busqueda";
+
+    private static final String STREAM_PREFIX = "cluster:";
+    private static final String NODE_FIELD = "nodo";
+    // Longitud máxima aproximada de cada stream: cada nodo solo lee los mensajes posteriores a su suscripción
+    private static final long MAX_LENGTH = 10000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final StreamMessageListenerContainer<String, MapRecord<String, String, String>> container;
+
+    // Ejecutor para publicar fuera del hilo de la petición
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor();
+
+    public ClusterEventStream(RedisTemplate<String, String> redisTemplate,
+                              StreamMessageListenerContainer<String, MapRecord<String, String, String>> container) {
+        this.redisTemplate = redisTemplate;
+        this.container = container;
+    }
+
+    /**
+     * Publica un mensaje en el canal para el resto de nodos
+     */
+    public void publicar(String canal, Map<String, String> campos) {
+        Map<String, String> mensaje = new HashMap<>(campos);
+        mensaje.put(NODE_FIELD, nodeId);
+        String stream = STREAM_PREFIX + canal;
+        publisher.execute(() -> {
+            try {
+                redisTemplate.opsForStream().add(StreamRecords.string(mensaje).withStreamKey(stream));
+                redisTemplate.opsForStream().trim(stream, MAX_LENGTH, true);
+            } catch (Exception e) {
+                log.warn("No se pudo publicar en el canal {}: {}", stream, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Entrega al consumidor los mensajes que otros nodos publiquen en el canal desde ahora
+     */
+    public Subscription suscribir(String canal, Consumer<Map<String, String>> consumidor) {
+        String stream = STREAM_PREFIX + canal;
+        return container.register(
+                StreamMessageListenerContainer.StreamReadRequest.builder(StreamOffset.create(stream, ultimoMensaje(stream)))
+                        .cancelOnError(e -> false)
+                        .errorHandler(e -> log.warn("Error leyendo el canal {}: {}", stream, e.getMessage()))
+                        .build(),
+                message -> {
+                    Map<String, String> campos = message.getValue();
+                    if (!nodeId.equals(campos.get(NODE_FIELD))) {
+                        consumidor.accept(campos);
+                    }
+                });
+    }
+
+    /**
+     * Posición del último mensaje del stream. Con '$' cada lectura bloqueante empezaría de nuevo
+     * en el final y se perderían los mensajes publicados entre dos lecturas
+     */
+    private ReadOffset ultimoMensaje(String stream) {
+        try {
+            List<MapRecord<String, Object, Object>> ultimo =
+                    redisTemplate.opsForStream().reverseRange(stream, Range.unbounded(), Limit.limit().count(1));
+            if (ultimo != null && !ultimo.isEmpty()) {
+                return ReadOffset.from(ultimo.get(0).getId());
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo leer la posición del canal {}: {}", stream, e.getMessage());
+        }
+        return ReadOffset.from("0-0");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdown();
+    }
+}
@@ -0,0 +1,12 @@
+package com.foroescolar.config.security;
+
+/**
+ * Relaciones usuario-recurso que SecurityService comprueba contra la base de datos
+ */
+public enum AccessRelation {
+    PROFESOR_GRADO,
+    TUTOR_GRADO,
+    ESTUDIANTE_GRADO,
+    TUTOR_ESTUDIANTE,
+    PROFESOR_TUTOR
+}
@@ -0,0 +1,26 @@
+package com.foroescolar.config.security;
+
+import com.foroescolar.dtos.user.AuthenticatedUser;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+
+/**
+ * Usuario autenticado de la petición actual (id, email y rol), resuelto una sola vez por el filtro JWT
+ * para que las comprobaciones de {@link SecurityService} no vuelvan a consultar la base de datos.
+ */
+@Component
+@RequestScope
+public class CurrentUserContext {
+
+    private AuthenticatedUser user;
+
+    public Optional<AuthenticatedUser> get() {
+        return Optional.ofNullable(user);
+    }
+
+    public void set(AuthenticatedUser user) {
+        this.user = user;
+    }
+}
@@ -4,9 +4,12 @@ import com.foroescolar.config.security.filters.BlacklistTokenFilter;
 import com.foroescolar.config.security.filters.JwtAuthenticationFilter;
 import com.foroescolar.config.security.filters.RequestLoggingFilter;
 import com.foroescolar.config.security.handlers.SecurityExceptionHandler;
+import com.github.benmanes.caffeine.cache.Cache;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -46,8 +49,6 @@ public class SecurityConfiguration {
     private static final String ROLE_TUTOR = "TUTOR";
     private static final String ROLE_ESTUDIANTE = "ESTUDIANTE";
 
-    private final Map<String, Boolean> accessDecisionCache = new ConcurrentHashMap<>();
-
     private final Map<String, Set<String>> patternRoleMap = new HashMap<>();
 
     public SecurityConfiguration(
@@ -89,6 +90,7 @@ public class SecurityConfiguration {
 
         // Patrones para profesores
         addPatternRoles("/api/asistencia/add", new String[]{ROLE_ADMIN, ROLE_PROFESOR});
+        addPatternRoles("/api/asistencia/addBulk", new String[]{ROLE_ADMIN, ROLE_PROFESOR});
         addPatternRoles("/api/asistencia/update/**", new String[]{ROLE_ADMIN, ROLE_PROFESOR});
         addPatternRoles("/api/asistencia/**", new String[]{ROLE_ADMIN, ROLE_PROFESOR});
         addPatternRoles("/api/profesor/**", new String[]{ROLE_ADMIN, ROLE_PROFESOR});
@@ -168,6 +170,7 @@ public class SecurityConfiguration {
         return new RequestMatcher[] {
                 new AntPathRequestMatcher("/api/user/getAll", HttpMethod.GET.name()),
                 new AntPathRequestMatcher("/api/estudiante/getAll", HttpMethod.GET.name()),
+                new AntPathRequestMatcher("/api/search/**", HttpMethod.GET.name()),
                 new AntPathRequestMatcher("/api/profesor/add", HttpMethod.POST.name()),
                 new AntPathRequestMatcher("/api/estudiante/add", HttpMethod.POST.name()),
                 new AntPathRequestMatcher("/api/tutorlegal/add", HttpMethod.POST.name()),
@@ -188,6 +191,7 @@ public class SecurityConfiguration {
     private RequestMatcher[] getTeacherEndpoints() {
         return new RequestMatcher[] {
                 new AntPathRequestMatcher("/api/asistencia/add", HttpMethod.POST.name()),
+                new AntPathRequestMatcher("/api/asistencia/addBulk", HttpMethod.POST.name()),
                 new AntPathRequestMatcher("/api/asistencia/update/**", HttpMethod.PUT.name()),
                 new AntPathRequestMatcher("/api/asistencia/**", HttpMethod.GET.name()),
                 new AntPathRequestMatcher("/api/profesor/**", HttpMethod.GET.name()),
@@ -268,6 +272,16 @@ public class SecurityConfiguration {
             return accessDecisionTimer;
         }
 
+        /**
+         * Registra las métricas del índice de acceso por usuario, incluido su ratio de aciertos
+         */
+        public void monitorAccessIndex(Cache<?, ?> accessIndex) {
+            CaffeineCacheMetrics.monitor(meterRegistry, accessIndex, "security.access.index");
+            Gauge.builder("security.access.index.hit.ratio", accessIndex, cache -> cache.stats().hitRate())
+                    .description("Ratio de aciertos del índice de acceso por usuario")
+                    .register(meterRegistry);
+        }
+
         private Counter getOrCreateEndpointCounter(String path, boolean granted) {
             String status = granted ? "granted" : "denied";
             String name = "security.endpoint." + status;
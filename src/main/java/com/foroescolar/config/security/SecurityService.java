@@ -1,11 +1,12 @@
 package com.foroescolar.config.security;
 
+import com.foroescolar.dtos.user.AuthenticatedUser;
+import com.foroescolar.dtos.user.UserAccessStamp;
 import com.foroescolar.dtos.user.UserPrincipal;
-import com.foroescolar.dtos.user.UserResponseDTO;
+import com.foroescolar.enums.RoleEnum;
 import com.foroescolar.model.Asistencia;
 import com.foroescolar.model.User;
 import com.foroescolar.repository.*;
-import com.foroescolar.services.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -14,6 +15,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 import static com.foroescolar.enums.RoleEnum.ROLE_ADMINISTRADOR;
 
 @Slf4j
@@ -22,48 +25,93 @@ public class SecurityService {
 
 
     private final UserRepository userRepository;
-    private final EstudianteRepository estudianteRepository;
     private final AsistenciaRepository asistenciaRepository;
-    private final GradoRepository gradoRepository;
     private final TutorLegalRepository tutorLegalRepository;
-    private final UserService userService;
+    private final EstudianteRepository estudianteRepository;
+    private final CurrentUserContext currentUserContext;
+    private final UserAccessIndex userAccessIndex;
 
     private static final String USUARIO_NO_ENCONTRADO = "Usuario no encontrado";
 
     @Autowired
-    public SecurityService(UserRepository userRepository, EstudianteRepository estudianteRepository,
-                           AsistenciaRepository asistenciaRepository, GradoRepository gradoRepository,
-                           TutorLegalRepository tutorLegalRepository, UserService userService) {
+    public SecurityService(UserRepository userRepository, AsistenciaRepository asistenciaRepository,
+                           TutorLegalRepository tutorLegalRepository, EstudianteRepository estudianteRepository,
+                           CurrentUserContext currentUserContext, UserAccessIndex userAccessIndex) {
         this.userRepository = userRepository;
-        this.estudianteRepository = estudianteRepository;
         this.asistenciaRepository = asistenciaRepository;
-        this.gradoRepository = gradoRepository;
         this.tutorLegalRepository = tutorLegalRepository;
-        this.userService = userService;
+        this.estudianteRepository = estudianteRepository;
+        this.currentUserContext = currentUserContext;
+        this.userAccessIndex = userAccessIndex;
+    }
+
+    /**
+     * Usuario autenticado de la petición actual. Normalmente lo resuelve el filtro JWT;
+     * si no, se resuelve una única vez a partir del principal y queda memorizado para la petición
+     */
+    private AuthenticatedUser currentUser() {
+        return currentUserContext.get().orElseGet(() -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            AuthenticatedUser resolved = switch (authentication.getPrincipal()) {
+                case AuthenticatedUser authenticatedUser -> authenticatedUser;
+                case User user -> AuthenticatedUser.of(user);
+                default -> {
+                    UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+                    yield userRepository.findByEmail(userDetails.getUsername())
+                            .map(AuthenticatedUser::of)
+                            .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+                }
+            };
+            currentUserContext.set(resolved);
+            return resolved;
+        });
+    }
+
+    /**
+     * Rol del usuario indicado; si es el usuario de la petición se evita la consulta
+     */
+    private RoleEnum rolOf(Long userId) {
+        AuthenticatedUser current = currentUser();
+        if (current.id().equals(userId)) {
+            return current.rol();
+        }
+        return userRepository.findAccessStampById(userId)
+                .map(UserAccessStamp::rol)
+                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+    }
+
+    private boolean isProfesorOfGrado(Long profesorId, Long gradoId) {
+        return userAccessIndex.allows(profesorId, AccessRelation.PROFESOR_GRADO, gradoId);
+    }
+
+    private boolean isTutorInGrado(Long tutorId, Long gradoId) {
+        return userAccessIndex.allows(tutorId, AccessRelation.TUTOR_GRADO, gradoId);
+    }
+
+    private boolean isEstudianteOfGrado(Long estudianteId, Long gradoId) {
+        return userAccessIndex.allows(estudianteId, AccessRelation.ESTUDIANTE_GRADO, gradoId);
+    }
+
+    private boolean isProfesorOfTutor(Long profesorId, Long tutorId) {
+        return userAccessIndex.allows(profesorId, AccessRelation.PROFESOR_TUTOR, tutorId);
     }
 
     public UserPrincipal getCurrentUser() {
-        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getPrincipal();
-        UserResponseDTO user = userService.findByEmail(userDetails.getUsername());
+        AuthenticatedUser user = currentUser();
         return new UserPrincipal(user.id(), user.email());
     }
 
 
     public boolean hasAccessToInformation(Long requestedUserId)  {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User currentUser = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+        AuthenticatedUser currentUser = currentUser();
 
-        if (currentUser.getId().equals(requestedUserId)) {
+        if (currentUser.id().equals(requestedUserId)) {
             return false;
         }
 
-        return !switch (currentUser.getRol()) {
+        return !switch (currentUser.rol()) {
             case ROLE_TUTOR, ROLE_PROFESOR ->
-                    estudianteRepository.existsByIdAndTutorId(requestedUserId, currentUser.getId());
+                    userAccessIndex.allows(currentUser.id(), AccessRelation.TUTOR_ESTUDIANTE, requestedUserId);
             case ROLE_ESTUDIANTE ->
                     false;
             case ROLE_ADMINISTRADOR ->
@@ -73,13 +121,12 @@ public class SecurityService {
     }
 
     public boolean canManageGradeAttendance(Long userId, Long gradoId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+        RoleEnum rol = rolOf(userId);
 
-        return switch (user.getRol()) {
+        return switch (rol) {
             case ROLE_ADMINISTRADOR -> true;
             case ROLE_PROFESOR ->
-                    gradoRepository.existsByIdAndProfesorId(gradoId, userId);
+                    isProfesorOfGrado(userId, gradoId);
             default -> false;
         };
     }
@@ -88,15 +135,14 @@ public class SecurityService {
      * Verifica si un usuario puede ver una asistencia específica
      */
     public boolean canViewAttendance(Long userId, Long asistenciaId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+        RoleEnum rol = rolOf(userId);
 
-        return switch (user.getRol()) {
+        return switch (rol) {
             case ROLE_ADMINISTRADOR -> true;
             case ROLE_PROFESOR -> {
                 Asistencia asistencia = asistenciaRepository.findById(asistenciaId)
                         .orElseThrow(() -> new RuntimeException("Asistencia no encontrada"));
-                yield  gradoRepository.existsByIdAndProfesorId(asistencia.getGrado().getId(), userId);
+                yield  isProfesorOfGrado(userId, asistencia.getGrado().getId());
             }
             case ROLE_TUTOR ->
                     asistenciaRepository.existsByIdAndEstudianteTutorId(asistenciaId, userId);
@@ -108,39 +154,47 @@ public class SecurityService {
      * Verifica si un usuario puede ver asistencias de un grado
      */
     public boolean canViewGradeAttendance(Long userId, Long gradoId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+        RoleEnum rol = rolOf(userId);
 
-        return switch (user.getRol()) {
+        return switch (rol) {
             case ROLE_ADMINISTRADOR -> true;
             case ROLE_PROFESOR ->
-                    gradoRepository.existsByIdAndProfesorId(gradoId, userId);
+                    isProfesorOfGrado(userId, gradoId);
             case ROLE_TUTOR ->
-                    gradoRepository.existsByIdAndEstudiantesTutorId(gradoId, userId);
+                    isTutorInGrado(userId, gradoId);
             default -> false;
         };
     }
 
+    /**
+     * Verifica si un usuario puede ver las asistencias de un estudiante: las mismas reglas que para
+     * las asistencias de su grado. Un estudiante inexistente no se puede ver
+     */
+    public boolean canViewStudentAttendance(Long userId, Long estudianteId) {
+        return estudianteRepository.findGradoIdsByIdIn(List.of(estudianteId)).stream()
+                .findFirst()
+                .map(estudiante -> canViewGradeAttendance(userId, estudiante.gradoId()))
+                .orElse(false);
+    }
+
     /**
      * Verifica si un usuario es administrador
      */
     public boolean isAdmin(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
-        return !ROLE_ADMINISTRADOR.equals(user.getRol());
+        RoleEnum rol = rolOf(userId);
+        return !ROLE_ADMINISTRADOR.equals(rol);
     }
 
     /**
      * Verifica si un usuario puede actualizar una asistencia
      */
     public boolean canUpdateAttendance(Long userId, Long gradoId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+        RoleEnum rol = rolOf(userId);
 
-        return switch (user.getRol()) {
+        return switch (rol) {
             case ROLE_ADMINISTRADOR -> true;
             case ROLE_PROFESOR ->
-                    gradoRepository.existsByIdAndProfesorId(gradoId, userId);
+                    isProfesorOfGrado(userId, gradoId);
             default -> false;
         };
     }
@@ -152,17 +206,16 @@ public class SecurityService {
      * @return true si tiene acceso permitido, false en caso contrario
      */
     public boolean canAccessTutorInfo(Long userId, Long tutorId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+        RoleEnum rol = rolOf(userId);
 
-        if (user.getId().equals(tutorId)) {
+        if (userId.equals(tutorId)) {
             log.debug("Usuario {} accediendo a su propia información", userId);
             return true;
         }
 
-        return switch (user.getRol()) {
+        return switch (rol) {
             case ROLE_ADMINISTRADOR -> true;
-            case ROLE_PROFESOR -> tutorLegalRepository.existsByIdAndEstudiantesProfesorId(tutorId, userId);
+            case ROLE_PROFESOR -> isProfesorOfTutor(userId, tutorId);
             default -> false;
         };
     }
@@ -171,10 +224,9 @@ public class SecurityService {
      * Verifica si un usuario puede actualizar la información de un tutor
      */
     public boolean canUpdateTutor(Long userId, Long tutorId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+        RoleEnum rol = rolOf(userId);
 
-        return switch (user.getRol().name()) {
+        return switch (rol.name()) {
             case "ROLE_ADMINISTRADOR" -> true;
             case "ROLE_TUTOR" -> userId.equals(tutorId);
             default -> false;
@@ -195,40 +247,29 @@ public class SecurityService {
      * @return true si tiene permiso, false en caso contrario
      */
     public boolean canViewGrade(Long userId, Long gradoId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
+        RoleEnum rol = rolOf(userId);
 
-        return switch (user.getRol().name()) {
+        return switch (rol.name()) {
             case "ROLE_ADMINISTRADOR" -> true;
 
             case "ROLE_PROFESOR" ->
-                    gradoRepository.existsByIdAndProfesorId(gradoId, userId);
+                    isProfesorOfGrado(userId, gradoId);
 
             case "ROLE_TUTOR" ->
-                    gradoRepository.existsByIdAndEstudiantesTutorId(gradoId, userId);
+                    isTutorInGrado(userId, gradoId);
 
             case "ROLE_ESTUDIANTE" ->
-                    gradoRepository.existsByIdAndEstudiantesId(gradoId, userId);
+                    isEstudianteOfGrado(userId, gradoId);
 
             default -> false;
         };
     }
 
     public Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User currentUser = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
-
-        return currentUser.getId();
+        return currentUser().id();
     }
 
     public boolean isCurrentUserAdmin() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User currentUser = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException(USUARIO_NO_ENCONTRADO));
-
-        return !ROLE_ADMINISTRADOR.equals(currentUser.getRol());
+        return !ROLE_ADMINISTRADOR.equals(currentUser().rol());
     }
 }
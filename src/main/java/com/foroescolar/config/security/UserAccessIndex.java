@@ -0,0 +1,96 @@
+package com.foroescolar.config.security;
+
+import com.foroescolar.config.redis.ClusterEventStream;
+import com.foroescolar.repository.EstudianteRepository;
+import com.foroescolar.repository.GradoRepository;
+import com.foroescolar.repository.TutorLegalRepository;
+import com.foroescolar.services.events.AccessRelationsChangedEvent;
+import com.foroescolar.utils.collections.LongHashSet;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice de acceso por usuario para las comprobaciones de relación de SecurityService.
+ * Para cada (usuario, relación) guarda el conjunto de IDs de recursos accesibles (grados, estudiantes
+ * o tutores), cargado perezosamente con una única consulta de IDs. Después, cada comprobación es un
+ * lookup O(1) en memoria: un profesor con 5 grados autoriza todas sus páginas sin SQL.
+ * Se invalida entero al confirmarse cualquier cambio de asignaciones, en este nodo y, a través del canal
+ * 'acceso' de {@link ClusterEventStream}, en el resto. El TTL solo acota el desfase si Redis no está disponible.
+ */
+@Slf4j
+@Component
+public class UserAccessIndex {
+
+    private static final String ORIGEN = "origen";
+
+    private final GradoRepository gradoRepository;
+    private final EstudianteRepository estudianteRepository;
+    private final TutorLegalRepository tutorLegalRepository;
+    private final ClusterEventStream clusterEventStream;
+
+    private final LoadingCache<AccessScope, LongHashSet> scopes;
+
+    public UserAccessIndex(GradoRepository gradoRepository, EstudianteRepository estudianteRepository,
+                           TutorLegalRepository tutorLegalRepository,
+                           SecurityConfiguration.SecurityMetricsService securityMetricsService,
+                           ClusterEventStream clusterEventStream,
+                           @Value("${api.security.access-index.max-size:50000}") long maxSize,
+                           @Value("${api.security.access-index.ttl:30m}") Duration ttl) {
+        this.gradoRepository = gradoRepository;
+        this.estudianteRepository = estudianteRepository;
+        this.tutorLegalRepository = tutorLegalRepository;
+        this.clusterEventStream = clusterEventStream;
+        this.scopes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::load);
+        securityMetricsService.monitorAccessIndex(scopes);
+    }
+
+    @PostConstruct
+    public void suscribirCambiosRemotos() {
+        clusterEventStream.suscribir(ClusterEventStream.CANAL_ACCESO, campos -> {
+            scopes.invalidateAll();
+            log.debug("Índice de acceso invalidado por otro nodo: {}", campos.get(ORIGEN));
+        });
+    }
+
+    /**
+     * Indica si el usuario tiene la relación indicada con el recurso
+     */
+    public boolean allows(Long userId, AccessRelation relation, Long targetId) {
+        return scopes.get(new AccessScope(userId, relation)).contains(targetId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessRelationsChanged(AccessRelationsChangedEvent event) {
+        scopes.invalidateAll();
+        clusterEventStream.publicar(ClusterEventStream.CANAL_ACCESO, Map.of(ORIGEN, String.valueOf(event.origen())));
+        log.debug("Índice de acceso invalidado por: {}", event.origen());
+    }
+
+    private LongHashSet load(AccessScope scope) {
+        Long userId = scope.userId();
+        List<Long> ids = switch (scope.relation()) {
+            case PROFESOR_GRADO -> gradoRepository.findIdsByProfesorId(userId);
+            case TUTOR_GRADO -> gradoRepository.findIdsByEstudiantesTutorId(userId);
+            case ESTUDIANTE_GRADO -> gradoRepository.findIdsByEstudiantesId(userId);
+            case TUTOR_ESTUDIANTE -> estudianteRepository.findIdsByTutorId(userId);
+            case PROFESOR_TUTOR -> tutorLegalRepository.findIdsByEstudiantesProfesorId(userId);
+        };
+        return LongHashSet.of(ids);
+    }
+
+    private record AccessScope(Long userId, AccessRelation relation) {
+    }
+}
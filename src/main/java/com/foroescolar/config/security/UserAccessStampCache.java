@@ -0,0 +1,43 @@
+package com.foroescolar.config.security;
+
+import com.foroescolar.dtos.user.UserAccessStamp;
+import com.foroescolar.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché de corta duración con el rol y el estado de cada usuario.
+ * En el modo de autenticación sin estado permite detectar cambios de rol y desactivaciones
+ * sin consultar la base de datos en cada petición; los cambios se aplican como mucho tras el TTL.
+ */
+@Component
+public class UserAccessStampCache {
+
+    private final LoadingCache<Long, Optional<UserAccessStamp>> stamps;
+
+    public UserAccessStampCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                                @Value("${api.jwt.stateless-auth.stamp-ttl:30s}") Duration stampTtl,
+                                @Value("${api.jwt.stateless-auth.stamp-max-size:10000}") long stampMaxSize) {
+        this.stamps = Caffeine.newBuilder()
+                .maximumSize(stampMaxSize)
+                .expireAfterWrite(stampTtl)
+                .recordStats()
+                .build(userRepository::findAccessStampById);
+        CaffeineCacheMetrics.monitor(meterRegistry, stamps, "security.user.stamp.cache");
+    }
+
+    public Optional<UserAccessStamp> get(Long userId) {
+        return stamps.get(userId);
+    }
+
+    public void invalidate(Long userId) {
+        stamps.invalidate(userId);
+    }
+}
@@ -1,15 +1,26 @@
 package com.foroescolar.config.security.filters;
 
+import com.foroescolar.config.security.CurrentUserContext;
+import com.foroescolar.config.security.UserAccessStampCache;
+import com.foroescolar.dtos.user.AuthenticatedUser;
 import com.foroescolar.exceptions.security.filters.FilterErrorHandler;
 import com.foroescolar.exceptions.security.filters.token.JwtAuthenticationException;
 import com.foroescolar.exceptions.security.filters.token.TokenExpiredException;
+import com.foroescolar.model.User;
 import com.foroescolar.services.TokenService;
+import com.foroescolar.utils.token.TokenClaims;
 import com.foroescolar.utils.token.TokenExtractor;
+import com.foroescolar.utils.token.TokenFingerprint;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,10 +29,8 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Order(2)
@@ -29,23 +38,54 @@ import java.util.concurrent.ConcurrentHashMap;
 public class JwtAuthenticationFilter extends BaseSecurityFilter {
     private final TokenService tokenService;
     private final UserDetailsService userDetailsService;
+    private final UserAccessStampCache userAccessStampCache;
+    private final CurrentUserContext currentUserContext;
 
-    private final Map<String, UserDetails> tokenCache = new LinkedHashMap<>(1000, 0.75f, true) {
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<String, UserDetails> eldest) {
-            return size() > 1000;
-        }
-    };
+    // Modo sin estado: el principal se construye con los claims verificados del token
+    private final boolean statelessAuth;
+
+    // Principales autenticados por token. Caché concurrente sin bloqueo global: las lecturas
+    // no toman ningún monitor y el desalojo (W-TinyLFU) se aplica de forma asíncrona
+    private final Cache<TokenFingerprint, UserDetails> tokenCache;
 
-    private final Map<String, Long> invalidTokenCache = new ConcurrentHashMap<>();
+    // Tiempo de carga de un principal ausente de la caché. Los fallos concurrentes del mismo token
+    // esperan a una única carga, así que cada muestra es una consulta a la base
+    private final Timer principalLoadTimer;
+
+    // Tokens rechazados recientemente, descartados a los 30 minutos
+    private final Cache<TokenFingerprint, Boolean> invalidTokenCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
 
     public JwtAuthenticationFilter(
             FilterErrorHandler errorHandler,
             TokenService tokenService,
-            UserDetailsService userDetailsService) {
+            UserDetailsService userDetailsService,
+            UserAccessStampCache userAccessStampCache,
+            CurrentUserContext currentUserContext,
+            MeterRegistry meterRegistry,
+            @Value("${api.jwt.stateless-auth.enabled:false}") boolean statelessAuth,
+            @Value("${api.jwt.principal-cache.max-size:1000}") long principalCacheMaxSize,
+            @Value("${api.jwt.principal-cache.ttl:5m}") Duration principalCacheTtl) {
         super(errorHandler, "/api/auth/login", "/swagger-ui.html", "/v3/api-docs/**", "/swagger-ui/**");
         this.tokenService = tokenService;
         this.userDetailsService = userDetailsService;
+        this.userAccessStampCache = userAccessStampCache;
+        this.currentUserContext = currentUserContext;
+        this.statelessAuth = statelessAuth;
+        this.tokenCache = Caffeine.newBuilder()
+                .maximumSize(principalCacheMaxSize)
+                .expireAfterWrite(principalCacheTtl)
+                .recordStats()
+                .build();
+
+        // Aciertos, fallos, desalojos y tamaño (cache.gets, cache.evictions, cache.size, ...)
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenCache, "security.principal.cache");
+        CaffeineCacheMetrics.monitor(meterRegistry, invalidTokenCache, "security.invalid.token.cache");
+        this.principalLoadTimer = Timer.builder("security.principal.cache.load")
+                .description("Tiempo de carga de los principales ausentes de la caché")
+                .register(meterRegistry);
     }
 
     @Override
@@ -61,14 +101,19 @@ public class JwtAuthenticationFilter extends BaseSecurityFilter {
 
             if (tokenOpt.isPresent()) {
                 String token = tokenOpt.get();
+                TokenFingerprint fingerprint = TokenFingerprint.of(token);
 
-                if (invalidTokenCache.containsKey(token)) {
+                if (invalidTokenCache.getIfPresent(fingerprint) != null) {
                     log.debug("Token previamente identificado como inválido");
                     context.filterChain().doFilter(context.request(), context.response());
                     return;
                 }
 
-                processToken(token, context);
+                if (statelessAuth) {
+                    processTokenClaims(token, fingerprint, context);
+                } else {
+                    processToken(token, fingerprint, context);
+                }
             }
 
             log.debug("Filtro JWT procesado correctamente");
@@ -80,33 +125,60 @@ public class JwtAuthenticationFilter extends BaseSecurityFilter {
         }
     }
 
-    private void processToken(String token, SecurityFilterContext context) {
+    private void processToken(String token, TokenFingerprint fingerprint, SecurityFilterContext context) {
         try {
-            synchronized (tokenCache) {
-                UserDetails cachedUserDetails = tokenCache.get(token);
-                if (cachedUserDetails != null) {
-                    authenticateWithUserDetails(cachedUserDetails, context.request());
-                    log.debug("Usuario autenticado desde caché: {}", cachedUserDetails.getUsername());
-                    return;
-                }
+            // Las peticiones concurrentes con el mismo token comparten una única carga
+            UserDetails userDetails = tokenCache.get(fingerprint, key -> loadPrincipal(token));
+            if (userDetails != null) {
+                authenticateWithUserDetails(userDetails, context.request());
+                log.debug("Usuario autenticado: {}", userDetails.getUsername());
             }
+        } catch (TokenExpiredException ex) {
+            invalidTokenCache.put(fingerprint, Boolean.TRUE);
+            throw ex;
+        } catch (Exception ex) {
+            invalidTokenCache.put(fingerprint, Boolean.TRUE);
+            log.error("Error procesando el token JWT", ex);
+            throw new JwtAuthenticationException("Error al procesar el token de autenticación: " + ex.getMessage());
+        }
+    }
 
+    // Principal del token, o null si no indica usuario (no se guarda en la caché)
+    private UserDetails loadPrincipal(String token) {
+        return principalLoadTimer.record(() -> {
             String username = tokenService.getUsernameFromToken(token);
-            if (username != null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                synchronized (tokenCache) {
-                    tokenCache.put(token, userDetails);
-                }
+            if (username == null) {
+                return null;
+            }
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            log.info("Usuario autenticado correctamente: {}", username);
+            return userDetails;
+        });
+    }
 
-                authenticateWithUserDetails(userDetails, context.request());
-                log.info("Usuario autenticado correctamente: {}", username);
+    private void processTokenClaims(String token, TokenFingerprint fingerprint, SecurityFilterContext context) {
+        try {
+            TokenClaims claims = tokenService.getClaimsFromToken(token);
+
+            // Rol y estado actuales del usuario (caché de TTL corto) para detectar cambios de rol o desactivación
+            boolean allowed = userAccessStampCache.get(claims.id())
+                    .map(stamp -> stamp.allows(claims.rol()))
+                    .orElse(false);
+            if (!allowed) {
+                throw new JwtAuthenticationException("El usuario fue desactivado o su rol cambió");
             }
+
+            authenticateWithUserDetails(
+                    new AuthenticatedUser(claims.id(), claims.email(), claims.nombre(), claims.rol()),
+                    context.request());
+            log.debug("Usuario autenticado desde claims del token: {}", claims.email());
         } catch (TokenExpiredException ex) {
-            invalidTokenCache.put(token, System.currentTimeMillis());
+            invalidTokenCache.put(fingerprint, Boolean.TRUE);
+            throw ex;
+        } catch (JwtAuthenticationException ex) {
             throw ex;
         } catch (Exception ex) {
-            invalidTokenCache.put(token, System.currentTimeMillis());
+            invalidTokenCache.put(fingerprint, Boolean.TRUE);
             log.error("Error procesando el token JWT", ex);
             throw new JwtAuthenticationException("Error al procesar el token de autenticación: " + ex.getMessage());
         }
@@ -121,14 +193,13 @@ public class JwtAuthenticationFilter extends BaseSecurityFilter {
                 );
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        log.debug("Usuario autenticado: {}", userDetails.getAuthorities());
-    }
 
-    @Scheduled(fixedRate = 3600000)
-    public void cleanInvalidTokenCache() {
-        long currentTime = System.currentTimeMillis();
-        invalidTokenCache.entrySet().removeIf(entry ->
-                (currentTime - entry.getValue()) > 1800000); // 30 minutos
-        log.debug("Limpieza de caché de tokens inválidos completada");
+        // Id y rol disponibles para SecurityService durante el resto de la petición
+        if (userDetails instanceof AuthenticatedUser authenticatedUser) {
+            currentUserContext.set(authenticatedUser);
+        } else if (userDetails instanceof User user) {
+            currentUserContext.set(AuthenticatedUser.of(user));
+        }
+        log.debug("Usuario autenticado: {}", userDetails.getAuthorities());
     }
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package com.foroescolar.controllers.asistencia;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.foroescolar.config.security.SecurityService;
 import com.foroescolar.dtos.ApiResponseDto;
 import com.foroescolar.dtos.asistencia.AsistenciaDTO;
 import com.foroescolar.dtos.asistencia.AsistenciaRequest;
 import com.foroescolar.dtos.asistencia.AsistenciaRequestDto;
+import com.foroescolar.dtos.asistencia.AusentismoEstudianteDTO;
 import com.foroescolar.dtos.asistencia.DetalleAsistenciaByAlumno;
+import com.foroescolar.dtos.asistencia.MatrizAsistenciaDTO;
+import com.foroescolar.dtos.asistencia.PaginaAsistenciaDTO;
+import com.foroescolar.dtos.asistencia.ResultadoAsistenciaGrado;
 import com.foroescolar.dtos.user.UserResponseDTO;
 import com.foroescolar.exceptions.ApplicationException;
 import com.foroescolar.exceptions.model.EntityNotFoundException;
@@ -14,12 +19,20 @@ import com.foroescolar.services.UserService;
 import com.foroescolar.utils.ApiResponseUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("api/asistencia")
@@ -28,15 +41,20 @@ public class AsistenciaController {
     private final AsistenciaService asistenciaService;
     private final UserService userService;
     private final SecurityService securityService;
+    private final ObjectMapper objectMapper;
+
+    private static final int FLUSH_CADA = 500;
 
     @Autowired
     public AsistenciaController(
             AsistenciaService asistenciaService,
             UserService userService,
-            SecurityService securityService) {
+            SecurityService securityService,
+            ObjectMapper objectMapper) {
         this.asistenciaService = asistenciaService;
         this.userService = userService;
         this.securityService = securityService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/add")
@@ -58,6 +76,47 @@ public class AsistenciaController {
             }
     }
 
+    @PostMapping("/addBulk")
+    @Operation(summary = "Register asistencias for several grados at once",
+            description = "Procesa todos los grados en un único lote y devuelve el resultado de cada uno")
+    public ResponseEntity<ApiResponseDto<ResultadoAsistenciaGrado>> addAsistencias(
+            @RequestBody List<AsistenciaRequest> asistenciaRequests) {
+        try {
+            Long userId = securityService.getCurrentUserId();
+
+            boolean[] permitida = new boolean[asistenciaRequests.size()];
+            List<AsistenciaRequest> permitidas = new ArrayList<>();
+            for (int i = 0; i < asistenciaRequests.size(); i++) {
+                AsistenciaRequest request = asistenciaRequests.get(i);
+                if (request != null && securityService.canManageGradeAttendance(userId, request.getGradoId())) {
+                    permitida[i] = true;
+                    permitidas.add(request);
+                }
+            }
+
+            // El servicio devuelve un resultado por solicitud y en el mismo orden: se intercalan
+            // con los rechazos para que la respuesta siga el orden del envío
+            Iterator<ResultadoAsistenciaGrado> procesadas = asistenciaService.asistenciasDelDia(permitidas).iterator();
+            List<ResultadoAsistenciaGrado> resultados = new ArrayList<>(asistenciaRequests.size());
+            for (int i = 0; i < asistenciaRequests.size(); i++) {
+                AsistenciaRequest request = asistenciaRequests.get(i);
+                if (permitida[i]) {
+                    resultados.add(procesadas.next());
+                } else if (request == null) {
+                    resultados.add(new ResultadoAsistenciaGrado(null,
+                            ResultadoAsistenciaGrado.Estado.DATOS_INVALIDOS, "Solicitud de asistencia vacía"));
+                } else {
+                    resultados.add(new ResultadoAsistenciaGrado(request.getGradoId(),
+                            ResultadoAsistenciaGrado.Estado.SIN_PERMISO,
+                            "No tienes permiso para registrar asistencia en este grado"));
+                }
+            }
+            return ApiResponseUtils.successIterable(resultados, "Asistencias procesadas");
+        } catch (ApplicationException e) {
+            return ApiResponseUtils.error("Error al registrar asistencias: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get asistencia by id")
     public ResponseEntity<ApiResponseDto<AsistenciaDTO>> getAsistenciaById(@PathVariable Long id) {
@@ -114,6 +173,72 @@ public class AsistenciaController {
         }
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "List asistencias by cursor",
+            description = "Paginación por keyset sobre (fecha, id); enviar el siguienteCursor recibido para la página siguiente")
+    public ResponseEntity<ApiResponseDto<PaginaAsistenciaDTO>> asistenciasPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        try {
+            if (securityService.isAdmin(securityService.getCurrentUserId())) {
+                return ApiResponseUtils.forbidden("No tienes permiso para ver todas las asistencias");
+            }
+            return ApiResponseUtils.success(asistenciaService.findPage(cursor, size), "Lista de asistencias");
+        } catch (ApplicationException e) {
+            return ApiResponseUtils.badRequest("Error al obtener asistencias: " + e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all asistencias as NDJSON", description = "Una asistencia JSON por línea, en orden (fecha, id)")
+    public ResponseEntity<?> asistenciasStream() {
+        if (securityService.isAdmin(securityService.getCurrentUserId())) {
+            return ApiResponseUtils.forbidden("No tienes permiso para ver todas las asistencias");
+        }
+        return ndjson(asistenciaService::streamAll);
+    }
+
+    @GetMapping("/grado/{id}/page")
+    @Operation(summary = "List asistencias of a grado by cursor")
+    public ResponseEntity<ApiResponseDto<PaginaAsistenciaDTO>> asistenciasByGradoPage(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        try {
+            if (!securityService.canViewGradeAttendance(securityService.getCurrentUserId(), id)) {
+                return ApiResponseUtils.forbidden("No tienes permiso para ver las asistencias de este grado");
+            }
+            return ApiResponseUtils.success(asistenciaService.getPageByGrado(id, cursor, size), "Asistencias encontradas");
+        } catch (ApplicationException e) {
+            return ApiResponseUtils.badRequest("Error al obtener asistencias: " + e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/grado/{id}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream the asistencias of a grado as NDJSON")
+    public ResponseEntity<?> asistenciasByGradoStream(@PathVariable Long id) {
+        if (!securityService.canViewGradeAttendance(securityService.getCurrentUserId(), id)) {
+            return ApiResponseUtils.forbidden("No tienes permiso para ver las asistencias de este grado");
+        }
+        return ndjson(() -> asistenciaService.streamByGrado(id));
+    }
+
+    @GetMapping("/estudiante/{id}/page")
+    @Operation(summary = "List asistencias of a student by cursor")
+    public ResponseEntity<ApiResponseDto<PaginaAsistenciaDTO>> asistenciasByEstudiantePage(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        try {
+            if (!securityService.canViewStudentAttendance(securityService.getCurrentUserId(), id)) {
+                return ApiResponseUtils.forbidden("No tienes permiso para ver las asistencias de este estudiante");
+            }
+            return ApiResponseUtils.success(asistenciaService.getPageByEstudiante(id, cursor, size), "Asistencias encontradas");
+        } catch (ApplicationException e) {
+            return ApiResponseUtils.badRequest("Error al obtener asistencias: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/fechaAndGrado/{id}")
     @Operation(summary = "List all asistencias for a specific date and grade")
     public ResponseEntity<ApiResponseDto<AsistenciaDTO>> getAsistenciasByDateAndGrado(
@@ -136,6 +261,44 @@ public class AsistenciaController {
         }
     }
 
+    @GetMapping("/matriz/{id}")
+    @Operation(summary = "Get the attendance grid of a grado",
+            description = "Estudiantes × días de clase; fechaInicio, fechaFin y estudianteId son opcionales (un solo día: fechaInicio = fechaFin)")
+    public ResponseEntity<ApiResponseDto<MatrizAsistenciaDTO>> getMatrizByGrado(
+            @PathVariable Long id,
+            @RequestParam(required = false) LocalDate fechaInicio,
+            @RequestParam(required = false) LocalDate fechaFin,
+            @RequestParam(required = false) Long estudianteId) {
+        try {
+            if (!securityService.canViewGradeAttendance(securityService.getCurrentUserId(), id)) {
+                return ApiResponseUtils.forbidden("No tienes permiso para ver las asistencias de este grado");
+            }
+
+            MatrizAsistenciaDTO matriz = asistenciaService.getMatrizByGrado(id, fechaInicio, fechaFin, estudianteId);
+            return ApiResponseUtils.success(matriz, "Matriz de asistencias");
+        } catch (ApplicationException e) {
+            return ApiResponseUtils.badRequest("Error al obtener asistencias: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/ausentismo/{id}")
+    @Operation(summary = "Get absence streaks and absence rates of a grado",
+            description = "Racha de ausencias, tasa de los últimos 30 días y del trimestre; umbral (0-1) filtra los estudiantes que lo superan")
+    public ResponseEntity<ApiResponseDto<AusentismoEstudianteDTO>> getAusentismoByGrado(
+            @PathVariable Long id,
+            @RequestParam(required = false) Double umbral) {
+        try {
+            if (!securityService.canViewGradeAttendance(securityService.getCurrentUserId(), id)) {
+                return ApiResponseUtils.forbidden("No tienes permiso para ver las asistencias de este grado");
+            }
+
+            List<AusentismoEstudianteDTO> indicadores = asistenciaService.getAusentismoByGrado(id, umbral);
+            return ApiResponseUtils.successIterable(indicadores, "Indicadores de ausentismo");
+        } catch (ApplicationException e) {
+            return ApiResponseUtils.badRequest("Error al obtener indicadores de ausentismo: " + e.getMessage());
+        }
+    }
+
     @PatchMapping("/update")
     @Operation(summary = "Update asistencia", description = "Solo se necesita ID de la asistencia,justificativo y estado")
     public ResponseEntity<ApiResponseDto<AsistenciaDTO>> updateAsistencia(
@@ -176,4 +339,23 @@ public class AsistenciaController {
 
     }
 
-}
\ No newline at end of file
+    // Escribe cada asistencia en cuanto se lee; el primer byte sale con la primera página
+    private ResponseEntity<StreamingResponseBody> ndjson(Supplier<Stream<AsistenciaDTO>> asistencias) {
+        StreamingResponseBody body = out -> {
+            try (Stream<AsistenciaDTO> stream = asistencias.get()) {
+                Iterator<AsistenciaDTO> iterator = stream.iterator();
+                int escritas = 0;
+                while (iterator.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                    if (++escritas == 1 || escritas % FLUSH_CADA == 0) {
+                        out.flush();
+                    }
+                }
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+}
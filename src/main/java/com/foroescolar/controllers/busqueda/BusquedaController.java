@@ -0,0 +1,36 @@
+package com.foroescolar.controllers.busqueda;
+
+import com.foroescolar.config.security.SecurityService;
+import com.foroescolar.controllers.ApiResponse;
+import com.foroescolar.dtos.ApiResponseDto;
+import com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO;
+import com.foroescolar.services.BusquedaService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/search")
+@RequiredArgsConstructor
+public class BusquedaController {
+
+    private final BusquedaService busquedaService;
+    private final SecurityService securityService;
+
+    @GetMapping
+    @Operation(summary = "Busca estudiantes y usuarios por nombre, apellido, DNI o email, tolerando acentos, prefijos y errores de tipeo")
+    public ResponseEntity<ApiResponseDto<List<ResultadoBusquedaDTO>>> buscar(
+            @RequestParam("q") String consulta,
+            @RequestParam(defaultValue = "20") int limite) {
+        if (securityService.isCurrentUserAdmin()) {
+            return ApiResponse.forbidden("Solo los administradores pueden realizar búsquedas");
+        }
+        return ApiResponse.success("Resultados de la búsqueda", busquedaService.buscar(consulta, limite));
+    }
+}
@@ -0,0 +1,10 @@
+package com.foroescolar.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Entrada inmutable del calendario en memoria: ID de la fila de fecha y los atributos
+ * de periodo que necesitan las asistencias
+ */
+public record DiaCalendarioDto(Long id, LocalDate fecha, int anio, int trimestre) {
+}
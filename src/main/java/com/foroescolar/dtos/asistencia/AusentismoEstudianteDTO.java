@@ -0,0 +1,17 @@
+package com.foroescolar.dtos.asistencia;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Indicadores de ausentismo de un estudiante
+ *
+ * @param rachaAusencias ausencias consecutivas en las últimas tomas del grado
+ * @param tasa30Dias     ausencias / clases registradas en los últimos 30 días
+ * @param enRiesgoDesde  fecha en que la tasa móvil superó el umbral configurado, o null
+ * @param tasaTrimestre  ausencias / clases registradas en el trimestre en curso, o null sin datos
+ */
+public record AusentismoEstudianteDTO(Long estudianteId, int rachaAusencias, LocalDate inicioRacha,
+                                      int clases30Dias, int ausencias30Dias, double tasa30Dias,
+                                      LocalDate enRiesgoDesde, Double tasaTrimestre) implements Serializable {
+}
@@ -0,0 +1,11 @@
+package com.foroescolar.dtos.asistencia;
+
+import com.foroescolar.enums.EstadoAsistencia;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección mínima de una asistencia para construir la matriz de un grado
+ */
+public record CeldaAsistenciaDTO(Long estudianteId, LocalDate fecha, EstadoAsistencia estado) {
+}
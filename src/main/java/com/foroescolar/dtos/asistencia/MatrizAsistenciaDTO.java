@@ -0,0 +1,18 @@
+package com.foroescolar.dtos.asistencia;
+
+import com.foroescolar.enums.EstadoAsistencia;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Grilla de asistencias de un grado: una columna por día de clase y una fila por estudiante.
+ * Las celdas sin asistencia registrada son null
+ */
+public record MatrizAsistenciaDTO(Long gradoId, List<LocalDate> fechas, List<Fila> estudiantes) implements Serializable {
+
+    public record Fila(Long estudianteId, List<EstadoAsistencia> estados,
+                       int presentes, int ausentes, int tardes, int justificados) implements Serializable {
+    }
+}
@@ -0,0 +1,13 @@
+package com.foroescolar.dtos.asistencia;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Página de asistencias ordenadas por (fecha, id)
+ *
+ * @param contenido       asistencias de la página
+ * @param siguienteCursor cursor de la página siguiente, o null si es la última
+ */
+public record PaginaAsistenciaDTO(List<AsistenciaDTO> contenido, String siguienteCursor) implements Serializable {
+}
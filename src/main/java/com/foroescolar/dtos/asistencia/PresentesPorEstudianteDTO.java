@@ -0,0 +1,15 @@
+package com.foroescolar.dtos.asistencia;
+
+/**
+ * Proyección agregada: asistencias presentes de un estudiante y clases dictadas en su grado
+ */
+public record PresentesPorEstudianteDTO(Long estudianteId, Long presentes, Integer clasesDelGrado) {
+
+    public PresentesPorEstudianteDTO {
+        presentes = presentes == null ? 0L : presentes;
+    }
+
+    public double porcentaje() {
+        return (double) (presentes * 100) / clasesDelGrado;
+    }
+}
@@ -0,0 +1,18 @@
+package com.foroescolar.dtos.asistencia;
+
+import java.io.Serializable;
+
+/**
+ * Resultado del registro de asistencia de un grado dentro de un envío múltiple
+ */
+public record ResultadoAsistenciaGrado(Long gradoId, Estado estado, String mensaje) implements Serializable {
+
+    public enum Estado {
+        REGISTRADA,
+        YA_REGISTRADA,
+        SIN_PERMISO,
+        GRADO_NO_ENCONTRADO,
+        ESTUDIANTES_AJENOS,
+        DATOS_INVALIDOS
+    }
+}
@@ -0,0 +1,14 @@
+package com.foroescolar.dtos.asistencia;
+
+/**
+ * Totales de asistencia de un estudiante sumando todos sus periodos
+ */
+public record TotalesAsistenciaDTO(Long presentes, Long ausentes, Long tardes, Long justificados) {
+
+    public TotalesAsistenciaDTO {
+        presentes = presentes == null ? 0L : presentes;
+        ausentes = ausentes == null ? 0L : ausentes;
+        tardes = tardes == null ? 0L : tardes;
+        justificados = justificados == null ? 0L : justificados;
+    }
+}
@@ -0,0 +1,27 @@
+package com.foroescolar.dtos.busqueda;
+
+import com.foroescolar.enums.RoleEnum;
+
+import java.io.Serializable;
+
+/**
+ * Estudiante o usuario encontrado por la búsqueda. Los IDs de estudiantes y usuarios pertenecen
+ * a tablas distintas: el tipo indica a cuál corresponde.
+ */
+public record ResultadoBusquedaDTO(
+        String tipo,
+        Long id,
+        String nombre,
+        String apellido,
+        String dni,
+        String email,
+        RoleEnum rol
+) implements Serializable {
+
+    public static final String TIPO_ESTUDIANTE = "ESTUDIANTE";
+    public static final String TIPO_USUARIO = "USUARIO";
+
+    public boolean esEstudiante() {
+        return TIPO_ESTUDIANTE.equals(tipo);
+    }
+}
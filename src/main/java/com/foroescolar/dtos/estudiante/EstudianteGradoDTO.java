@@ -0,0 +1,7 @@
+package com.foroescolar.dtos.estudiante;
+
+/**
+ * Proyección mínima estudiante - grado para validar pertenencias en bloque
+ */
+public record EstudianteGradoDTO(Long estudianteId, Long gradoId) {
+}
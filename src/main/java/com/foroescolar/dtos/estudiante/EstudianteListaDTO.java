@@ -1,6 +1,7 @@
 package com.foroescolar.dtos.estudiante;
 
 import com.foroescolar.enums.GeneroEnum;
+import com.foroescolar.enums.MateriaEnum;
 
 import java.io.Serializable;
 
@@ -12,4 +13,11 @@ public record EstudianteListaDTO(
         GeneroEnum genero,
         Boolean activo,
         Long gradoId, String gradoNombre
-) implements Serializable {}
+) implements Serializable {
+
+    // Constructor usado por las proyecciones JPQL, que entregan la materia del grado como enum
+    public EstudianteListaDTO(Long id, String nombre, String apellido, String dni, GeneroEnum genero,
+                              Boolean activo, Long gradoId, MateriaEnum materia) {
+        this(id, nombre, apellido, dni, genero, activo, gradoId, gradoId != null ? String.valueOf(materia) : null);
+    }
+}
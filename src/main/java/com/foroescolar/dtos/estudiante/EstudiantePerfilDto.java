@@ -1,6 +1,7 @@
 package com.foroescolar.dtos.estudiante;
 
 import com.foroescolar.enums.GeneroEnum;
+import com.foroescolar.enums.TipoDocumentoEnum;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.validation.constraints.NotBlank;
@@ -29,5 +30,12 @@ public record EstudiantePerfilDto(
     Long grado
     ) implements Serializable {
 
+    // Constructor usado por las proyecciones JPQL, que entregan el tipo de documento como enum
+    public EstudiantePerfilDto(Long id, String nombre, String apellido, String dni, GeneroEnum genero,
+                               LocalDate fechaNacimiento, TipoDocumentoEnum tipoDocumento, Boolean activo,
+                               Long tutor, Long grado) {
+        this(id, nombre, apellido, dni, genero, fechaNacimiento,
+                tipoDocumento != null ? tipoDocumento.name() : null, activo, tutor, grado);
     }
+}
 
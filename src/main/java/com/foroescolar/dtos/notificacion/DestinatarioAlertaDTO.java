@@ -0,0 +1,7 @@
+package com.foroescolar.dtos.notificacion;
+
+/**
+ * Proyección del estudiante y su tutor legal para generar alertas de asistencia
+ */
+public record DestinatarioAlertaDTO(Long estudianteId, String nombre, String apellido, Long tutorId, String tutorEmail) {
+}
@@ -0,0 +1,35 @@
+package com.foroescolar.dtos.user;
+
+import com.foroescolar.enums.RoleEnum;
+import com.foroescolar.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal ligero construido a partir de los claims del token, sin cargar la entidad User
+ */
+public record AuthenticatedUser(Long id, String email, String nombre, RoleEnum rol) implements UserDetails {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getNombre(), user.getRol());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(rol.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -0,0 +1,13 @@
+package com.foroescolar.dtos.user;
+
+import com.foroescolar.enums.RoleEnum;
+
+/**
+ * Estado de acceso actual de un usuario (rol y si está activo)
+ */
+public record UserAccessStamp(Long id, RoleEnum rol, boolean activo) {
+
+    public boolean allows(RoleEnum tokenRol) {
+        return activo && rol == tokenRol;
+    }
+}
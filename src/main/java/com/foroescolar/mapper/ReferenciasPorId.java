@@ -0,0 +1,42 @@
+package com.foroescolar.mapper;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolución por lotes de las listas de IDs que reciben los mappers: una sola consulta
+ * findAllById por tipo de entidad, sin importar cuántos IDs traiga el DTO
+ */
+public final class ReferenciasPorId {
+
+    private ReferenciasPorId() {
+    }
+
+    /**
+     * Entidades con los IDs indicados, en el mismo orden. Los IDs nulos o inexistentes se omiten.
+     * Devuelve una lista mutable, ya que Hibernate reemplaza y modifica las colecciones asignadas.
+     */
+    public static <T> List<T> resolver(List<Long> ids, JpaRepository<T, Long> repository, Function<T, Long> getId) {
+        if (ids == null) {
+            return null;
+        }
+        Set<Long> distintos = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distintos.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, T> porId = repository.findAllById(distintos).stream()
+                .collect(Collectors.toMap(getId, Function.identity()));
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
@@ -2,23 +2,30 @@ package com.foroescolar.mapper.asistencia;
 
 import com.foroescolar.dtos.asistencia.AsistenciaDTO;
 import com.foroescolar.dtos.asistencia.AsistenciaRequestDto;
-import com.foroescolar.enums.EstadoAsistencia;
+import com.foroescolar.dtos.asistencia.PresentesPorEstudianteDTO;
 import com.foroescolar.model.Asistencia;
 import com.foroescolar.model.Estudiante;
 import com.foroescolar.model.Grado;
-import com.foroescolar.repository.AsistenciaRepository;
 import com.foroescolar.repository.EstudianteRepository;
 import com.foroescolar.repository.GradoRepository;
+import com.foroescolar.repository.ResumenAsistenciaRepository;
 import org.mapstruct.*;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Mapper(componentModel = "spring")
 public abstract class AsistenciaMapper {
 
     @Autowired
     private EstudianteRepository estudianteRepository;
     @Autowired
-    private AsistenciaRepository asistenciaRepository;
+    private ResumenAsistenciaRepository resumenAsistenciaRepository;
     @Autowired
     private GradoRepository gradoRepository;
 
@@ -30,23 +37,48 @@ public abstract class AsistenciaMapper {
 
 
     @Mapping(source = "id", target = "id")
-    @Mapping(source = "estudiante.id", target = "porcentajeAsistencia", qualifiedByName = "calcularPorcentaje")
+    @Mapping(target = "porcentajeAsistencia", ignore = true)
     @Mapping(source = "observaciones", target = "justificativos")
     @Mapping(source = "estudiante", target = "nombreEstudiante", qualifiedByName = "estudianteName")
     @Mapping(source = "estudiante", target = "estudiante", qualifiedByName = "estudianteToLong")
     @Mapping(source = "grado", target = "grado", qualifiedByName = "gradoToLong")
     @Mapping(source = "fecha.fecha", target = "fecha")
-    public abstract AsistenciaDTO toResponseDto(Asistencia asistencia);
+    protected abstract AsistenciaDTO mapearAsistencia(Asistencia asistencia);
+
+    public AsistenciaDTO toResponseDto(Asistencia asistencia) {
+        if (asistencia == null) {
+            return null;
+        }
+        return toResponseDtoList(List.of(asistencia)).get(0);
+    }
+
+    /**
+     * Mapea un listado completo calculando el porcentaje de asistencia de todos sus
+     * estudiantes con una única consulta agrupada, en lugar de dos consultas por fila.
+     */
+    public List<AsistenciaDTO> toResponseDtoList(Collection<Asistencia> asistencias) {
+        Map<Long, Double> porcentajes = calcularPorcentajes(asistencias);
+        return asistencias.stream()
+                .map(asistencia -> {
+                    AsistenciaDTO dto = mapearAsistencia(asistencia);
+                    if (dto.getEstudiante() != null) {
+                        dto.setPorcentajeAsistencia(porcentajes.getOrDefault(dto.getEstudiante(), 0.0));
+                    }
+                    return dto;
+                })
+                .toList();
+    }
 
 
+    // Solo se necesita la clave foránea: referencias perezosas, sin consultar estudiante ni grado
     @Named("longToEstudiante")
     protected Estudiante longToEstudiante(Long id) {
-        return id != null ? estudianteRepository.findById(id).orElse(null) : null;
+        return id != null ? estudianteRepository.getReferenceById(id) : null;
     }
 
     @Named("longToGrado")
     protected Grado longToGrado(Long id) {
-        return id != null ? gradoRepository.findById(id).orElse(null) : null;
+        return id != null ? gradoRepository.getReferenceById(id) : null;
     }
 
 
@@ -64,18 +96,18 @@ public abstract class AsistenciaMapper {
     protected String estudianteName(Estudiante estudiante) {
         return estudiante != null ? estudiante.getNombre() + " " + estudiante.getApellido() : null;
     }
-    @Named("calcularPorcentaje")
-    protected Double calcularPorcentaje(Long id) {
-        long diasAsistidos = asistenciaRepository.countByEstudianteIdAndEstado(id, EstadoAsistencia.PRESENTE);
-        long totalClases = obtenerContadorGrado(id);
-      return (double) (diasAsistidos * 100 )/ totalClases;
-   }
-
-    private long obtenerContadorGrado(Long estudianteId) {
-        Estudiante estudiante = estudianteRepository.findById(estudianteId).orElse(null);
-
-        assert estudiante != null;
-        return   estudiante.getGrado().getContador();
+
+    private Map<Long, Double> calcularPorcentajes(Collection<Asistencia> asistencias) {
+        Set<Long> estudianteIds = asistencias.stream()
+                .map(Asistencia::getEstudiante)
+                .filter(Objects::nonNull)
+                .map(Estudiante::getId)
+                .collect(Collectors.toSet());
+        if (estudianteIds.isEmpty()) {
+            return Map.of();
+        }
+        return resumenAsistenciaRepository.sumPresentesByEstudianteIdIn(estudianteIds).stream()
+                .collect(Collectors.toMap(PresentesPorEstudianteDTO::estudianteId, PresentesPorEstudianteDTO::porcentaje));
     }
 
 }
@@ -41,6 +41,7 @@ public abstract class EstudianteMapperBase {
 
     /**
      * Convierte un Estudiante a EstudianteDetalleDTO
+     * Cuenta las colecciones en memoria: usar solo con colecciones ya cargadas (p. ej. recién creado)
      */
     @Transactional(readOnly = true)
     public EstudianteDetalleDTO mapearADetalleDTO(Estudiante estudiante) {
@@ -48,6 +49,34 @@ public abstract class EstudianteMapperBase {
             return null;
         }
 
+        EstudianteDetalleDTO.ResumenColeccionesDTO resumenColecciones =
+                new EstudianteDetalleDTO.ResumenColeccionesDTO(
+                        estudiante.getBoletin() != null ? estudiante.getBoletin().size() : 0,
+                        estudiante.getAsistencia() != null ? estudiante.getAsistencia().size() : 0,
+                        estudiante.getTarea() != null ? estudiante.getTarea().size() : 0,
+                        estudiante.getCalificaciones() != null ? estudiante.getCalificaciones().size() : 0
+                );
+        return mapearADetalleDTO(estudiante, resumenColecciones);
+    }
+
+    /**
+     * Convierte una fila de EstudianteRepository.findByIdWithDetails a EstudianteDetalleDTO,
+     * con los tamaños de colección ya calculados por la consulta
+     */
+    public EstudianteDetalleDTO mapearADetalleDTO(Object[] fila) {
+        EstudianteDetalleDTO.ResumenColeccionesDTO resumenColecciones =
+                new EstudianteDetalleDTO.ResumenColeccionesDTO(
+                        ((Number) fila[1]).intValue(),
+                        ((Number) fila[2]).intValue(),
+                        ((Number) fila[3]).intValue(),
+                        ((Number) fila[4]).intValue()
+                );
+        return mapearADetalleDTO((Estudiante) fila[0], resumenColecciones);
+    }
+
+    private EstudianteDetalleDTO mapearADetalleDTO(Estudiante estudiante,
+                                                   EstudianteDetalleDTO.ResumenColeccionesDTO resumenColecciones) {
+
         GradoResumenDTO gradoDTO = null;
         if (estudiante.getGrado() != null) {
             Grado grado = estudiante.getGrado();
@@ -72,14 +101,6 @@ public abstract class EstudianteMapperBase {
             );
         }
 
-        EstudianteDetalleDTO.ResumenColeccionesDTO resumenColecciones =
-                new EstudianteDetalleDTO.ResumenColeccionesDTO(
-                        estudiante.getBoletin() != null ? estudiante.getBoletin().size() : 0,
-                        estudiante.getAsistencia() != null ? estudiante.getAsistencia().size() : 0,
-                        estudiante.getTarea() != null ? estudiante.getTarea().size() : 0,
-                        estudiante.getCalificaciones() != null ? estudiante.getCalificaciones().size() : 0
-                );
-
         return new EstudianteDetalleDTO(
                 estudiante.getId(),
                 estudiante.getNombre(),
@@ -2,6 +2,7 @@ package com.foroescolar.mapper.profesor;
 
 import com.foroescolar.dtos.profesor.ProfesorRequestDTO;
 import com.foroescolar.dtos.profesor.ProfesorResponseDTO;
+import com.foroescolar.mapper.ReferenciasPorId;
 import com.foroescolar.model.*;
 import com.foroescolar.repository.*;
 import org.mapstruct.Mapper;
@@ -72,7 +73,7 @@ public abstract class ProfesorMapper {
 
     @Named("longListToEstudiantes")
     protected List<Estudiante> longListToEstudiantes(List<Long> ids) {
-        return ids != null ? ids.stream().map(id -> estudianteRepository.findById(id).orElse(null)).collect(Collectors.toList()) : null;
+        return ReferenciasPorId.resolver(ids, estudianteRepository, Estudiante::getId);
     }
 
     @Named("boletinesToLongList")
@@ -93,7 +94,7 @@ public abstract class ProfesorMapper {
 
     @Named("longListToBoletines")
     protected List<Boletin> longListToBoletines(List<Long> ids) {
-        return ids != null ? ids.stream().map(id -> boletinRepository.findById(id).orElse(null)).collect(Collectors.toList()) : null;
+        return ReferenciasPorId.resolver(ids, boletinRepository, Boletin::getId);
     }
 
 
@@ -115,7 +116,7 @@ public abstract class ProfesorMapper {
 
     @Named("longListToTareas")
     protected List<Tarea> longListToTareas(List<Long> ids) {
-        return ids != null ? ids.stream().map(id -> tareaRepository.findById(id).orElse(null)).collect(Collectors.toList()) : null;
+        return ReferenciasPorId.resolver(ids, tareaRepository, Tarea::getId);
     }
 
     @Named("calificacionesToLongList")
@@ -136,7 +137,7 @@ public abstract class ProfesorMapper {
 
     @Named("longListToCalificaciones")
     protected List<Calificacion> longListToCalificaciones(List<Long> ids) {
-        return ids != null ? ids.stream().map(id -> calificacionRepository.findById(id).orElse(null)).collect(Collectors.toList()) : null;
+        return ReferenciasPorId.resolver(ids, calificacionRepository, Calificacion::getId);
     }
 
     @Named("gradosToLongList")
@@ -157,6 +158,6 @@ public abstract class ProfesorMapper {
 
     @Named("longListToGrados")
     protected List<Grado> longListToGrados(List<Long> ids) {
-        return ids != null ? ids.stream().map(id -> gradoRepository.findById(id).orElse(null)).collect(Collectors.toList()) : null;
+        return ReferenciasPorId.resolver(ids, gradoRepository, Grado::getId);
     }
 }
\ No newline at end of file
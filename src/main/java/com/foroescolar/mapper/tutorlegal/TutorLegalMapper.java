@@ -2,6 +2,7 @@ package com.foroescolar.mapper.tutorlegal;
 
 import com.foroescolar.dtos.tutorlegal.TutorLegalRequestDTO;
 import com.foroescolar.dtos.tutorlegal.TutorLegalResponseDTO;
+import com.foroescolar.mapper.ReferenciasPorId;
 import com.foroescolar.model.Estudiante;
 import com.foroescolar.model.Institucion;
 import com.foroescolar.model.TutorLegal;
@@ -51,6 +52,6 @@ public abstract class TutorLegalMapper {
 
     @Named("longListToEstudiante")
     protected List<Estudiante> longListToEstudiante(List<Long> ids) {
-        return ids != null ? ids.stream().map(id -> estudianteRepository.findById(id).orElse(null)).collect(Collectors.toList()) : null;
+        return ReferenciasPorId.resolver(ids, estudianteRepository, Estudiante::getId);
     }
 }
\ No newline at end of file
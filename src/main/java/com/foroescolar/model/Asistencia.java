@@ -10,7 +10,21 @@ import lombok.*;
 @Getter
 @Setter
 @Entity
-@Table(name = "asistencia")
+// Planes de carga: listados (fecha y estudiante para el DTO) y detalle (además el grado)
+@NamedEntityGraph(name = "Asistencia.lista", attributeNodes = {
+        @NamedAttributeNode("fecha"),
+        @NamedAttributeNode("estudiante")
+})
+@NamedEntityGraph(name = "Asistencia.detalle", attributeNodes = {
+        @NamedAttributeNode("fecha"),
+        @NamedAttributeNode("estudiante"),
+        @NamedAttributeNode("grado")
+})
+@Table(name = "asistencia", indexes = {
+        @Index(name = "idx_asistencia_fecha_id", columnList = "fecha_id, id"),
+        @Index(name = "idx_asistencia_grado_fecha_id", columnList = "grado_id, fecha_id, id"),
+        @Index(name = "idx_asistencia_estudiante_fecha_id", columnList = "estudiante_id, fecha_id, id")
+})
 public class Asistencia {
 
     @Id
@@ -23,22 +37,16 @@ public class Asistencia {
     @Column(name = "estado")
     private EstadoAsistencia estado;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "fecha_id")
     private Fecha fecha;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "estudiante_id")
     private Estudiante estudiante;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "grado_id")
     private Grado grado;
 
-    public void actualizarContadorGrado(){
-        if(this.grado!=null){
-            this.grado.incrementarContador();
-        }
-    }
-
 }
\ No newline at end of file
@@ -13,6 +13,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// Plan de carga del boletín: sus calificaciones, que el DTO expone como IDs
+@NamedEntityGraph(name = "Boletin.detalle", attributeNodes = @NamedAttributeNode("calificacion"))
 public class Boletin {
 
     @Id
@@ -29,11 +31,11 @@ public class Boletin {
     @OneToMany(mappedBy = "boletin", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Calificacion> calificacion;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "estudiante_id")
     private Estudiante estudiante;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "profesor_id")
     private Profesor profesor;
 
@@ -3,6 +3,7 @@ package com.foroescolar.model;
 import com.foroescolar.enums.GeneroEnum;
 import com.foroescolar.enums.RoleEnum;
 import com.foroescolar.enums.TipoDocumentoEnum;
+import com.foroescolar.services.events.BusquedaEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -16,7 +17,14 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+// Planes de carga: listados (con su grado) y detalle (grado y tutor)
+@NamedEntityGraph(name = "Estudiante.lista", attributeNodes = @NamedAttributeNode("grado"))
+@NamedEntityGraph(name = "Estudiante.detalle", attributeNodes = {
+        @NamedAttributeNode("grado"),
+        @NamedAttributeNode("tutor")
+})
 @Table(name = "estudiantes")
+@EntityListeners(BusquedaEntityListener.class)
 public class Estudiante {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -40,7 +48,7 @@ public class Estudiante {
     private LocalDate fechaNacimiento;
 
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "grado_id", nullable = false, foreignKey = @ForeignKey(name="FK_GRADO"))
     private Grado grado;
 
@@ -20,7 +20,7 @@ public class Fecha {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(nullable = false, unique = true)
     private LocalDate fecha;
 
     @Column(nullable = false)
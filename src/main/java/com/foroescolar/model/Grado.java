@@ -15,6 +15,8 @@ import java.util.List;
 @NoArgsConstructor
 @Getter
 @Setter
+// Plan de carga de listados y detalle: el profesor, que el DTO muestra por nombre
+@NamedEntityGraph(name = "Grado.detalle", attributeNodes = @NamedAttributeNode("profesor"))
 public class Grado {
 
     @Id
@@ -29,13 +31,15 @@ public class Grado {
     private TurnoEnum turno;
     @Enumerated(value = EnumType.STRING)
     private MateriaEnum materia;
+    // Solo lo modifica el UPDATE atómico de GradoRepository.incrementarContadores
+    @Column(updatable = false)
     private int contador= 0;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="profesor_id")
     private Profesor profesor;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="institucion_id", nullable = false)
     private Institucion institucion;
 
@@ -45,9 +49,6 @@ public class Grado {
     @OneToMany(mappedBy = "grado", cascade = {CascadeType.ALL},orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Asistencia> asistencias;
 
-    public void incrementarContador(){
-        this.contador++;
-    }
 
 
 }
\ No newline at end of file
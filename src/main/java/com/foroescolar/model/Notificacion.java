@@ -27,11 +27,11 @@ public class Notificacion {
     @Column(name = "fecha_envio")
     private LocalDate fecha;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "administrador_escolar_id" )
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tutor_legal_id")
     private TutorLegal tutorLegal;
 
@@ -0,0 +1,36 @@
+package com.foroescolar.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contadores de asistencia por estudiante y periodo, mantenidos en la misma transacción
+ * que registra o modifica cada asistencia. Evita contar filas de asistencia en cada consulta.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "resumen_asistencia")
+public class ResumenAsistencia {
+
+    @EmbeddedId
+    private ResumenAsistenciaId id;
+
+    @Column(nullable = false)
+    private int presentes;
+
+    @Column(nullable = false)
+    private int ausentes;
+
+    @Column(nullable = false)
+    private int tardes;
+
+    @Column(nullable = false)
+    private int justificados;
+
+    public int getTotal() {
+        return presentes + ausentes + tardes + justificados;
+    }
+}
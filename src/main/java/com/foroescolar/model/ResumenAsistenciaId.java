@@ -0,0 +1,34 @@
+package com.foroescolar.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Clave del resumen de asistencias: un estudiante en un trimestre de un año
+ */
+@Embeddable
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResumenAsistenciaId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "estudiante_id", nullable = false)
+    private Long estudianteId;
+
+    @Column(nullable = false)
+    private int anio;
+
+    @Column(nullable = false)
+    private int trimestre;
+}
@@ -26,10 +26,10 @@ public class Tarea {
     @Enumerated(EnumType.STRING)
     private EstadoEntregaEnum estadoDeEntrega;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "estudiante_id")
     private Estudiante estudiante;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "profesor_id")
     private Profesor profesor;
 
@@ -2,6 +2,7 @@ package com.foroescolar.model;
 
 import com.foroescolar.enums.RoleEnum;
 import com.foroescolar.enums.TipoDocumentoEnum;
+import com.foroescolar.services.events.BusquedaEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -13,6 +14,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(BusquedaEntityListener.class)
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "user_type")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
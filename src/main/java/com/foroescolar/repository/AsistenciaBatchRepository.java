@@ -0,0 +1,29 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.enums.EstadoAsistencia;
+
+import java.util.Map;
+
+/**
+ * Inserciones masivas de asistencias por JDBC batch.
+ * Asistencia usa GenerationType.IDENTITY, lo que desactiva el batching de Hibernate
+ */
+public interface AsistenciaBatchRepository {
+
+    /**
+     * Inserta en un único batch la asistencia del día de cada estudiante de un grado
+     *
+     * @param fechaId ID de la fecha ya persistida
+     * @param gradoId ID del grado
+     * @param estados estado de asistencia por ID de estudiante
+     */
+    void insertAll(Long fechaId, Long gradoId, Map<Long, EstadoAsistencia> estados);
+
+    /**
+     * Inserta en un único batch la asistencia del día de varios grados
+     *
+     * @param fechaId          ID de la fecha ya persistida
+     * @param estadosPorGrado  estado de asistencia por ID de estudiante, agrupado por ID de grado
+     */
+    void insertAll(Long fechaId, Map<Long, Map<Long, EstadoAsistencia>> estadosPorGrado);
+}
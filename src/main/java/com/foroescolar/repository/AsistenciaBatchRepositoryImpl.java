@@ -0,0 +1,36 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.enums.EstadoAsistencia;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class AsistenciaBatchRepositoryImpl implements AsistenciaBatchRepository {
+
+    private static final String INSERT_ASISTENCIA =
+            "INSERT INTO asistencia (observaciones, estado, fecha_id, estudiante_id, grado_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String SIN_OBSERVACION = "Sin observacion";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AsistenciaBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(Long fechaId, Long gradoId, Map<Long, EstadoAsistencia> estados) {
+        insertAll(fechaId, Map.of(gradoId, estados));
+    }
+
+    @Override
+    public void insertAll(Long fechaId, Map<Long, Map<Long, EstadoAsistencia>> estadosPorGrado) {
+        List<Object[]> filas = new ArrayList<>();
+        estadosPorGrado.forEach((gradoId, estados) -> estados.forEach((estudianteId, estado) ->
+                filas.add(new Object[]{SIN_OBSERVACION, estado.name(), fechaId, estudianteId, gradoId})));
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ASISTENCIA, filas);
+        }
+    }
+}
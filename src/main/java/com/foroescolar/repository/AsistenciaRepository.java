@@ -1,28 +1,79 @@
 package com.foroescolar.repository;
 
+import com.foroescolar.dtos.asistencia.CeldaAsistenciaDTO;
 import com.foroescolar.enums.EstadoAsistencia;
 import com.foroescolar.model.Asistencia;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AsistenciaRepository extends GenericRepository<Asistencia, Long> {
+public interface AsistenciaRepository extends GenericRepository<Asistencia, Long>, AsistenciaBatchRepository {
 
     long count();
 
+    // Las asociaciones son perezosas: cada consulta declara el grafo que necesita su caso de uso
+    @Override
+    @EntityGraph("Asistencia.detalle")
+    Optional<Asistencia> findById(Long id);
+
+    @Override
+    @EntityGraph("Asistencia.lista")
+    List<Asistencia> findAll();
+
+    @EntityGraph("Asistencia.lista")
     List<Asistencia> findByGradoId(Long gradoId);
+
+    // Estudiante, día y estado de cada asistencia del grado, sin materializar entidades
+    @Query("SELECT new com.foroescolar.dtos.asistencia.CeldaAsistenciaDTO(a.estudiante.id, f.fecha, a.estado) " +
+            "FROM Asistencia a JOIN a.fecha f WHERE a.grado.id = :gradoId")
+    List<CeldaAsistenciaDTO> findCeldasByGradoId(@Param("gradoId") Long gradoId);
+
+    @EntityGraph("Asistencia.lista")
     List<Asistencia> findByEstudianteIdAndGradoId(Long estudianteId, Long gradoId);
 
+    @EntityGraph("Asistencia.lista")
     List<Asistencia> findByEstudianteId(Long estudianteId);
+
+    @EntityGraph("Asistencia.lista")
     List<Asistencia> findByFechaFechaBetweenAndGradoId(LocalDate startDate, LocalDate endDate, Long gradoId);
     boolean existsByFechaFechaAndGradoId(LocalDate fecha, Long gradoId);
 
+    // Grados, de entre los indicados, que ya tienen asistencia registrada en la fecha
+    @Query("SELECT DISTINCT a.grado.id FROM Asistencia a WHERE a.fecha.fecha = :fecha AND a.grado.id IN :gradoIds")
+    List<Long> findGradoIdsByFechaAndGradoIdIn(@Param("fecha") LocalDate fecha,
+                                               @Param("gradoIds") Collection<Long> gradoIds);
+
     int countByEstudianteIdAndEstado(Long id, EstadoAsistencia estado);
 
+    // Paginación por keyset: asistencias posteriores a (fechaId, id) en orden (fecha_id, id)
+    @Query("SELECT a FROM Asistencia a " +
+            "WHERE a.fecha.id > :fechaId OR (a.fecha.id = :fechaId AND a.id > :id) " +
+            "ORDER BY a.fecha.id, a.id")
+    @EntityGraph("Asistencia.lista")
+    List<Asistencia> findSiguientes(@Param("fechaId") Long fechaId, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT a FROM Asistencia a WHERE a.grado.id = :gradoId " +
+            "AND (a.fecha.id > :fechaId OR (a.fecha.id = :fechaId AND a.id > :id)) " +
+            "ORDER BY a.fecha.id, a.id")
+    @EntityGraph("Asistencia.lista")
+    List<Asistencia> findSiguientesByGradoId(@Param("gradoId") Long gradoId, @Param("fechaId") Long fechaId,
+                                             @Param("id") Long id, Limit limit);
+
+    @Query("SELECT a FROM Asistencia a WHERE a.estudiante.id = :estudianteId " +
+            "AND (a.fecha.id > :fechaId OR (a.fecha.id = :fechaId AND a.id > :id)) " +
+            "ORDER BY a.fecha.id, a.id")
+    @EntityGraph("Asistencia.lista")
+    List<Asistencia> findSiguientesByEstudianteId(@Param("estudianteId") Long estudianteId, @Param("fechaId") Long fechaId,
+                                                  @Param("id") Long id, Limit limit);
+
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END " +
             "FROM Asistencia a " +
             "WHERE a.id = :asistenciaId AND a.estudiante.tutor.id = :tutorId")
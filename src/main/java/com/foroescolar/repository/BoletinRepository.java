@@ -1,8 +1,21 @@
 package com.foroescolar.repository;
 
 import com.foroescolar.model.Boletin;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface BoletinRepository extends GenericRepository<Boletin, Long> {
+
+    // El DTO expone los IDs de las calificaciones: se cargan junto al boletín
+    @Override
+    @EntityGraph("Boletin.detalle")
+    Optional<Boletin> findById(Long id);
+
+    @Override
+    @EntityGraph("Boletin.detalle")
+    List<Boletin> findAll();
 }
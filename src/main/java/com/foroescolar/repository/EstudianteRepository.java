@@ -1,14 +1,21 @@
 package com.foroescolar.repository;
 
+import com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO;
+import com.foroescolar.dtos.estudiante.EstudianteGradoDTO;
+import com.foroescolar.dtos.estudiante.EstudianteListaDTO;
+import com.foroescolar.dtos.estudiante.EstudiantePerfilDto;
 import com.foroescolar.dtos.estudiante.EstudianteResumenDTO;
+import com.foroescolar.dtos.notificacion.DestinatarioAlertaDTO;
 import com.foroescolar.model.Asistencia;
 import com.foroescolar.model.Estudiante;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +23,34 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
 
     boolean existsByDni(String numeroDocumento);
 
+    // Las asociaciones son perezosas: cada consulta declara el grafo que necesita su caso de uso
+    @Override
+    @EntityGraph("Estudiante.detalle")
+    Optional<Estudiante> findById(Long id);
+
+    @Override
+    @EntityGraph("Estudiante.lista")
+    List<Estudiante> findAllById(Iterable<Long> ids);
+
+    @EntityGraph("Estudiante.lista")
     List<Estudiante> findByGradoId(Long gradoId);
 
+    // Filtra en una sola consulta los IDs que pertenecen al grado
+    @Query("SELECT e.id FROM Estudiante e WHERE e.grado.id = :gradoId AND e.id IN :ids")
+    List<Long> findIdsByGradoIdAndIdIn(@Param("gradoId") Long gradoId, @Param("ids") Collection<Long> ids);
+
+    // Grado de cada estudiante indicado, para validar varios grados en una sola consulta
+    @Query("SELECT new com.foroescolar.dtos.estudiante.EstudianteGradoDTO(e.id, e.grado.id) " +
+            "FROM Estudiante e WHERE e.id IN :ids")
+    List<EstudianteGradoDTO> findGradoIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Estudiante y tutor a notificar, para todo un lote de alertas en una sola consulta
+    @Query("SELECT new com.foroescolar.dtos.notificacion.DestinatarioAlertaDTO(e.id, e.nombre, e.apellido, t.id, t.email) " +
+            "FROM Estudiante e JOIN e.tutor t WHERE e.id IN :ids")
+    List<DestinatarioAlertaDTO> findDestinatariosAlertaByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT a FROM Asistencia a WHERE a.estudiante.id = :id")
+    @EntityGraph("Asistencia.lista")
     List<Asistencia> findByEstudianteId(@Param("id") Long id);
 
     // Consulta optimizada para listados
@@ -33,14 +65,44 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
             "FROM Estudiante e LEFT JOIN e.grado g")
     Page<EstudianteResumenDTO> findAllResumen(Pageable pageable);
 
-    // Consulta optimizada para detalles con joins
-    @Query("SELECT e FROM Estudiante e " +
+    // Proyecciones de listado: solo las columnas del DTO, sin entidades gestionadas ni grafos ansiosos
+    @Query(value = "SELECT new com.foroescolar.dtos.estudiante.EstudianteListaDTO(" +
+            "e.id, e.nombre, e.apellido, e.dni, e.genero, e.activo, g.id, g.materia) " +
+            "FROM Estudiante e LEFT JOIN e.grado g",
+            countQuery = "SELECT COUNT(e) FROM Estudiante e")
+    Page<EstudianteListaDTO> findAllLista(Pageable pageable);
+
+    @Query("SELECT new com.foroescolar.dtos.estudiante.EstudianteListaDTO(" +
+            "e.id, e.nombre, e.apellido, e.dni, e.genero, e.activo, g.id, g.materia) " +
+            "FROM Estudiante e JOIN e.grado g WHERE g.id = :gradoId")
+    List<EstudianteListaDTO> findListaByGradoId(@Param("gradoId") Long gradoId);
+
+    @Query("SELECT new com.foroescolar.dtos.estudiante.EstudiantePerfilDto(" +
+            "e.id, e.nombre, e.apellido, e.dni, e.genero, e.fechaNacimiento, e.tipoDocumento, e.activo, t.id, g.id) " +
+            "FROM Estudiante e LEFT JOIN e.grado g LEFT JOIN e.tutor t")
+    List<EstudiantePerfilDto> findAllPerfil();
+
+    @Query("SELECT new com.foroescolar.dtos.estudiante.EstudiantePerfilDto(" +
+            "e.id, e.nombre, e.apellido, e.dni, e.genero, e.fechaNacimiento, e.tipoDocumento, e.activo, t.id, g.id) " +
+            "FROM Estudiante e JOIN e.grado g LEFT JOIN e.tutor t WHERE g.id = :gradoId")
+    List<EstudiantePerfilDto> findPerfilByGradoId(@Param("gradoId") Long gradoId);
+
+    // Consulta optimizada para detalles con joins: el estudiante con grado y tutor, y el tamaño de sus
+    // colecciones como subconsultas escalares en la misma sentencia, sin cargar ninguna colección.
+    // Cada fila es [Estudiante, boletines, asistencias, tareas, calificaciones]
+    @Query("SELECT e, " +
+            "(SELECT COUNT(b.id) FROM Boletin b WHERE b.estudiante.id = e.id), " +
+            "(SELECT COUNT(a.id) FROM Asistencia a WHERE a.estudiante.id = e.id), " +
+            "(SELECT COUNT(ta.id) FROM Tarea ta WHERE ta.estudiante.id = e.id), " +
+            "(SELECT COUNT(c.id) FROM Calificacion c WHERE c.estudiante.id = e.id) " +
+            "FROM Estudiante e " +
             "LEFT JOIN FETCH e.grado g " +
             "LEFT JOIN FETCH e.tutor t " +
             "WHERE e.id = :id")
-    Optional<Estudiante> findByIdWithDetails(@Param("id") Long id);
+    List<Object[]> findByIdWithDetails(@Param("id") Long id);
 
     // Búsqueda por número de documento
+    @EntityGraph("Estudiante.detalle")
     Optional<Estudiante> findByDni(String numeroDocumento);
 
     // Consulta para estudiantes por tutor legal
@@ -52,7 +114,18 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
     boolean existsByIdAndTutorId(Long requestedUserId, Long id);
 
     @Query("SELECT e FROM Estudiante e WHERE e.tutor.id = :tutorId")
+    @EntityGraph("Estudiante.lista")
     List<Estudiante> buscarPorTutorId(@Param("tutorId") Long tutorId);
 
+    @EntityGraph("Estudiante.lista")
     List<Estudiante> findByTutorId(Long tutorId);
+
+    // Campos indexables de todos los estudiantes, para construir el índice de búsqueda
+    @Query("SELECT new com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO(" +
+            "'ESTUDIANTE', e.id, e.nombre, e.apellido, e.dni, CAST(NULL AS String), e.rol) FROM Estudiante e")
+    List<ResultadoBusquedaDTO> findDocumentosBusqueda();
+
+    // IDs de los estudiantes a cargo de un tutor (índice de acceso)
+    @Query("SELECT e.id FROM Estudiante e WHERE e.tutor.id = :tutorId")
+    List<Long> findIdsByTutorId(@Param("tutorId") Long tutorId);
 }
\ No newline at end of file
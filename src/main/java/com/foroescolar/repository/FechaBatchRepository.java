@@ -0,0 +1,17 @@
+package com.foroescolar.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Alta masiva de fechas por JDBC batch. Las sentencias usan sintaxis de MySQL
+ * (ON DUPLICATE KEY UPDATE), como el resto de repositorios batch
+ */
+public interface FechaBatchRepository {
+
+    /**
+     * Inserta en un único batch las fechas que todavía no existen; las existentes se ignoran
+     * gracias a la restricción única sobre la columna fecha
+     */
+    void insertarSiFaltan(Collection<LocalDate> fechas);
+}
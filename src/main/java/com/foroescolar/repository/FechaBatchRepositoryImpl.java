@@ -0,0 +1,35 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.model.Fecha;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class FechaBatchRepositoryImpl implements FechaBatchRepository {
+
+    private static final String INSERT_FECHA =
+            "INSERT INTO fecha (fecha, anio, mes, dia, trimestre, semana) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE fecha = fecha";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FechaBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertarSiFaltan(Collection<LocalDate> fechas) {
+        List<Object[]> filas = new ArrayList<>(fechas.size());
+        for (LocalDate valor : fechas) {
+            Fecha fecha = new Fecha(valor);
+            filas.add(new Object[]{fecha.getFecha(), fecha.getAnio(), fecha.getMes(), fecha.getDia(),
+                    fecha.getTrimestre(), fecha.getSemana()});
+        }
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_FECHA, filas);
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.foroescolar.repository;
 
+import com.foroescolar.dtos.DiaCalendarioDto;
 import com.foroescolar.model.Fecha;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
-public interface FechaRepository extends JpaRepository<Fecha, Long> {
+public interface FechaRepository extends JpaRepository<Fecha, Long>, FechaBatchRepository {
 
     Optional<Fecha> findByFecha(LocalDate fecha);
+
+    // Días del calendario en el rango, sin materializar entidades
+    @Query("SELECT new com.foroescolar.dtos.DiaCalendarioDto(f.id, f.fecha, f.anio, f.trimestre) " +
+            "FROM Fecha f WHERE f.fecha BETWEEN :desde AND :hasta")
+    List<DiaCalendarioDto> findCalendario(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
 }
@@ -5,21 +5,55 @@ import com.foroescolar.enums.CursoEnum;
 import com.foroescolar.enums.MateriaEnum;
 import com.foroescolar.enums.TurnoEnum;
 import com.foroescolar.model.Grado;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface GradoRepository extends JpaRepository<Grado,Long> {
 
+    // Las asociaciones son perezosas: los listados y el detalle cargan el profesor en la misma consulta
+    @Override
+    @EntityGraph("Grado.detalle")
+    Optional<Grado> findById(Long id);
+
+    @Override
+    @EntityGraph("Grado.detalle")
+    List<Grado> findAll();
+
     // Buscar grados por profesor
+    @EntityGraph("Grado.detalle")
     List<Grado> findByProfesorId(Long profesorId);
+
+    @Query("SELECT g.id FROM Grado g WHERE g.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Suma una clase dictada a cada grado en una sola sentencia
+    @Modifying
+    @Query("UPDATE Grado g SET g.contador = g.contador + 1 WHERE g.id IN :ids")
+    int incrementarContadores(@Param("ids") Collection<Long> ids);
+
+    // IDs de los grados de un profesor (índice de acceso)
+    @Query("SELECT g.id FROM Grado g WHERE g.profesor.id = :profesorId")
+    List<Long> findIdsByProfesorId(@Param("profesorId") Long profesorId);
+
+    // IDs de los grados con estudiantes a cargo de un tutor (índice de acceso)
+    @Query("SELECT DISTINCT e.grado.id FROM Estudiante e WHERE e.tutor.id = :tutorId")
+    List<Long> findIdsByEstudiantesTutorId(@Param("tutorId") Long tutorId);
+
+    // ID del grado de un estudiante (índice de acceso)
+    @Query("SELECT e.grado.id FROM Estudiante e WHERE e.id = :estudianteId")
+    List<Long> findIdsByEstudiantesId(@Param("estudianteId") Long estudianteId);
     // Buscar grados que tienen estudiantes con un tutor específico
     @Query("SELECT DISTINCT g FROM Grado g " +
             "JOIN g.estudiantes e " +
             "WHERE e.tutor.id = :tutorId")
+    @EntityGraph("Grado.detalle")
     List<Grado> findByEstudiantesTutorId(@Param("tutorId") Long tutorId);
 
     @Query("SELECT CASE WHEN COUNT(g) > 0 THEN true ELSE false END " +
@@ -62,14 +96,18 @@ public interface GradoRepository extends JpaRepository<Grado,Long> {
     boolean existsByAulaAndTurno(AulaEnum aula, TurnoEnum turno);
 
     // Buscar grados por turno
+    @EntityGraph("Grado.detalle")
     List<Grado> findByTurno(TurnoEnum turno);
 
     // Buscar grados por materia
+    @EntityGraph("Grado.detalle")
     List<Grado> findByMateria(MateriaEnum materia);
 
     // Buscar grados por curso
+    @EntityGraph("Grado.detalle")
     List<Grado> findByCurso(CursoEnum curso);
 
+    @EntityGraph("Grado.detalle")
     Optional<Grado> findByCursoAndAulaAndTurno(CursoEnum curso, AulaEnum aula, TurnoEnum turno);
 
 
@@ -0,0 +1,32 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.enums.EstadoAsistencia;
+
+import java.util.Map;
+
+/**
+ * Actualización incremental del resumen de asistencias por JDBC.
+ * Cada fila se crea o se ajusta con un upsert, sin leer el valor anterior
+ */
+public interface ResumenAsistenciaBatchRepository {
+
+    /**
+     * Suma en un único batch una asistencia por estudiante en el periodo indicado
+     *
+     * @param anio      año de la fecha de la asistencia
+     * @param trimestre trimestre de la fecha de la asistencia
+     * @param estados   estado registrado por ID de estudiante
+     */
+    void registrar(int anio, int trimestre, Map<Long, EstadoAsistencia> estados);
+
+    /**
+     * Traslada una asistencia de un estado a otro (p. ej. AUSENTE a JUSTIFICADO).
+     * Un estado nulo indica alta ({@code anterior}) o baja ({@code nuevo}) de la asistencia
+     */
+    void cambiarEstado(Long estudianteId, int anio, int trimestre, EstadoAsistencia anterior, EstadoAsistencia nuevo);
+
+    /**
+     * Recalcula todo el resumen a partir de la tabla de asistencias
+     */
+    void reconstruir();
+}
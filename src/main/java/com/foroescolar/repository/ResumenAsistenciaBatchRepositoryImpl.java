@@ -0,0 +1,92 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.enums.EstadoAsistencia;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ResumenAsistenciaBatchRepositoryImpl implements ResumenAsistenciaBatchRepository {
+
+    // Alias de fila (MySQL 8.0.19+) en lugar de VALUES(), obsoleto en ON DUPLICATE KEY UPDATE
+    private static final String UPSERT_RESUMEN =
+            "INSERT INTO resumen_asistencia (estudiante_id, anio, trimestre, presentes, ausentes, tardes, justificados) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) AS nuevo " +
+            "ON DUPLICATE KEY UPDATE presentes = resumen_asistencia.presentes + nuevo.presentes, " +
+            "ausentes = resumen_asistencia.ausentes + nuevo.ausentes, " +
+            "tardes = resumen_asistencia.tardes + nuevo.tardes, " +
+            "justificados = resumen_asistencia.justificados + nuevo.justificados";
+
+    private static final String RECONSTRUIR_RESUMEN =
+            "INSERT INTO resumen_asistencia (estudiante_id, anio, trimestre, presentes, ausentes, tardes, justificados) " +
+            "SELECT a.estudiante_id, f.anio, f.trimestre, " +
+            "SUM(CASE WHEN a.estado = 'PRESENTE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.estado = 'AUSENTE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.estado = 'TARDE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.estado = 'JUSTIFICADO' THEN 1 ELSE 0 END) " +
+            "FROM asistencia a JOIN fecha f ON f.id = a.fecha_id " +
+            "WHERE a.estudiante_id IS NOT NULL " +
+            "GROUP BY a.estudiante_id, f.anio, f.trimestre";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResumenAsistenciaBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void registrar(int anio, int trimestre, Map<Long, EstadoAsistencia> estados) {
+        List<Object[]> filas = new ArrayList<>(estados.size());
+        estados.forEach((estudianteId, estado) -> filas.add(fila(estudianteId, anio, trimestre, delta(estado, 1))));
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_RESUMEN, filas);
+        }
+    }
+
+    @Override
+    public void cambiarEstado(Long estudianteId, int anio, int trimestre, EstadoAsistencia anterior, EstadoAsistencia nuevo) {
+        if (anterior == nuevo) {
+            return;
+        }
+        int[] deltas = delta(anterior, -1);
+        int[] alta = delta(nuevo, 1);
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] += alta[i];
+        }
+        jdbcTemplate.update(UPSERT_RESUMEN, fila(estudianteId, anio, trimestre, deltas));
+    }
+
+    @Override
+    public void reconstruir() {
+        jdbcTemplate.update("DELETE FROM resumen_asistencia");
+        jdbcTemplate.update(RECONSTRUIR_RESUMEN);
+    }
+
+    // Posición de cada contador en la fila, en el orden de columnas del UPSERT
+    private static final int PRESENTES = 0;
+    private static final int AUSENTES = 1;
+    private static final int TARDES = 2;
+    private static final int JUSTIFICADOS = 3;
+
+    // Variación de cada contador. Se asocia cada estado a su columna explícitamente,
+    // sin depender del orden de declaración del enum
+    private static int[] delta(EstadoAsistencia estado, int cantidad) {
+        int[] deltas = new int[4];
+        if (estado != null) {
+            int columna = switch (estado) {
+                case PRESENTE -> PRESENTES;
+                case AUSENTE -> AUSENTES;
+                case TARDE -> TARDES;
+                case JUSTIFICADO -> JUSTIFICADOS;
+            };
+            deltas[columna] = cantidad;
+        }
+        return deltas;
+    }
+
+    private static Object[] fila(Long estudianteId, int anio, int trimestre, int[] deltas) {
+        return new Object[]{estudianteId, anio, trimestre,
+                deltas[PRESENTES], deltas[AUSENTES], deltas[TARDES], deltas[JUSTIFICADOS]};
+    }
+}
@@ -0,0 +1,31 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.dtos.asistencia.PresentesPorEstudianteDTO;
+import com.foroescolar.dtos.asistencia.TotalesAsistenciaDTO;
+import com.foroescolar.model.ResumenAsistencia;
+import com.foroescolar.model.ResumenAsistenciaId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ResumenAsistenciaRepository extends JpaRepository<ResumenAsistencia, ResumenAsistenciaId>,
+        ResumenAsistenciaBatchRepository {
+
+    List<ResumenAsistencia> findByIdEstudianteIdInAndIdAnioAndIdTrimestre(Collection<Long> estudianteIds, int anio, int trimestre);
+
+    // Totales de un estudiante: recorre solo sus filas de resumen, un puñado por año
+    @Query("SELECT new com.foroescolar.dtos.asistencia.TotalesAsistenciaDTO(" +
+            "SUM(r.presentes), SUM(r.ausentes), SUM(r.tardes), SUM(r.justificados)) " +
+            "FROM ResumenAsistencia r WHERE r.id.estudianteId = :estudianteId")
+    TotalesAsistenciaDTO findTotalesByEstudianteId(@Param("estudianteId") Long estudianteId);
+
+    // Presentes por estudiante y clases de su grado, en una sola consulta agrupada para todo un listado
+    @Query("SELECT new com.foroescolar.dtos.asistencia.PresentesPorEstudianteDTO(e.id, SUM(r.presentes), g.contador) " +
+            "FROM Estudiante e JOIN e.grado g " +
+            "LEFT JOIN ResumenAsistencia r ON r.id.estudianteId = e.id " +
+            "WHERE e.id IN :ids GROUP BY e.id, g.contador")
+    List<PresentesPorEstudianteDTO> sumPresentesByEstudianteIdIn(@Param("ids") Collection<Long> ids);
+}
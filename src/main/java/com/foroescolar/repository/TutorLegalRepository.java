@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -26,6 +27,13 @@ public interface TutorLegalRepository extends GenericRepository<TutorLegal, Long
             "WHERE t.id = :tutorId AND e.activo = true")
     boolean existsByIdAndEstudiantesActivoTrue(@Param("tutorId") Long tutorId);
 
+    // IDs de los tutores de los estudiantes de un profesor, vía profesor_estudiante (índice de acceso)
+    @Query("SELECT DISTINCT t.id FROM TutorLegal t " +
+            "JOIN t.estudiante e " +
+            "JOIN e.profesores p " +
+            "WHERE p.id = :profesorId")
+    List<Long> findIdsByEstudiantesProfesorId(@Param("profesorId") Long profesorId);
+
     @Query("SELECT t FROM TutorLegal t " +
             "LEFT JOIN FETCH t.estudiante " +
             "WHERE t.id = :id")
@@ -1,5 +1,7 @@
 package com.foroescolar.repository;
 
+import com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO;
+import com.foroescolar.dtos.user.UserAccessStamp;
 import com.foroescolar.model.User;
 import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +10,7 @@ import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -23,5 +26,14 @@ public interface UserRepository extends JpaRepository<User,Long> {//GenericRepos
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.rol WHERE u.email = :email")
     Optional<User> findByEmailWithRoles(@Param("email") String email);
 
+    // Proyección mínima para comprobar rol y estado sin cargar la jerarquía JOINED completa
+    @Query("SELECT new com.foroescolar.dtos.user.UserAccessStamp(u.id, u.rol, u.activo) FROM User u WHERE u.id = :id")
+    Optional<UserAccessStamp> findAccessStampById(@Param("id") Long id);
+
+    // Campos indexables de todos los usuarios, para construir el índice de búsqueda
+    @Query("SELECT new com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO(" +
+            "'USUARIO', u.id, u.nombre, u.apellido, u.dni, u.email, u.rol) FROM User u")
+    List<ResultadoBusquedaDTO> findDocumentosBusqueda();
+
 
 }
@@ -3,11 +3,16 @@ package com.foroescolar.services;
 import com.foroescolar.dtos.asistencia.AsistenciaDTO;
 import com.foroescolar.dtos.asistencia.AsistenciaRequest;
 import com.foroescolar.dtos.asistencia.AsistenciaRequestDto;
+import com.foroescolar.dtos.asistencia.AusentismoEstudianteDTO;
 import com.foroescolar.dtos.asistencia.DetalleAsistenciaByAlumno;
+import com.foroescolar.dtos.asistencia.MatrizAsistenciaDTO;
+import com.foroescolar.dtos.asistencia.PaginaAsistenciaDTO;
+import com.foroescolar.dtos.asistencia.ResultadoAsistenciaGrado;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AsistenciaService extends GenericServiceDto<Long, AsistenciaDTO>{
 
@@ -15,10 +20,47 @@ public interface AsistenciaService extends GenericServiceDto<Long, AsistenciaDTO
 
    void asistenciaDelDia(AsistenciaRequest requestDTO);
 
+    /**
+     * Registra en un único lote la asistencia del día de varios grados
+     * @return resultado por grado, en el orden de las solicitudes
+     */
+    List<ResultadoAsistenciaGrado> asistenciasDelDia(List<AsistenciaRequest> requests);
+
+    /**
+     * Página de todas las asistencias por keyset sobre (fecha, id)
+     * @param cursor cursor devuelto por la página anterior, o null para la primera
+     * @param size   tamaño de página, acotado a un máximo
+     */
+    PaginaAsistenciaDTO findPage(String cursor, int size);
+    PaginaAsistenciaDTO getPageByGrado(Long gradoId, String cursor, int size);
+    PaginaAsistenciaDTO getPageByEstudiante(Long estudianteId, String cursor, int size);
+
+    /**
+     * Recorre las asistencias en páginas por keyset consultadas a medida que se consume el stream,
+     * con memoria acotada a una página sea cual sea el tamaño de la tabla
+     */
+    Stream<AsistenciaDTO> streamAll();
+    Stream<AsistenciaDTO> streamByGrado(Long gradoId);
+
     Iterable<AsistenciaDTO> getAsistenciasByEstudianteID(Long estudianteId);
    Iterable<AsistenciaDTO> getAsistenciasByGradoAndEstudiante(Long estudianteId,Long gradoId);
     Iterable<AsistenciaDTO> getAsistenciasByGrado(Long gradoId);
     List<AsistenciaDTO> getByFechaBeetweenAndGrado(Long gradoId, LocalDate fechaDesde, LocalDate fechaHasta);
 
+    /**
+     * Grilla estudiantes × días del grado servida desde memoria
+     * @param fechaDesde   primer día incluido, o null para desde el inicio
+     * @param fechaHasta   último día incluido, o null hasta el final
+     * @param estudianteId limita la grilla a un estudiante, o null para todos
+     */
+    MatrizAsistenciaDTO getMatrizByGrado(Long gradoId, LocalDate fechaDesde, LocalDate fechaHasta, Long estudianteId);
+
     Optional<DetalleAsistenciaByAlumno> getDetailsByStudent(Long estudianteId);
+
+    /**
+     * Racha de ausencias, tasa móvil de 30 días y tasa del trimestre en curso de cada estudiante del grado
+     * @param umbral si no es null, solo devuelve los estudiantes cuya tasa de 30 días o del trimestre lo supera
+     * @return estudiantes ordenados de mayor a menor tasa de 30 días
+     */
+    List<AusentismoEstudianteDTO> getAusentismoByGrado(Long gradoId, Double umbral);
 }
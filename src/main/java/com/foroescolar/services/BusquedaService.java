@@ -0,0 +1,10 @@
+package com.foroescolar.services;
+
+import com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO;
+
+import java.util.List;
+
+public interface BusquedaService {
+
+    List<ResultadoBusquedaDTO> buscar(String consulta, int limite);
+}
@@ -1,6 +1,8 @@
 package com.foroescolar.services;
 
 import com.foroescolar.model.User;
+import com.foroescolar.utils.token.TokenClaims;
+import com.foroescolar.utils.token.TokenFingerprint;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Set;
@@ -10,10 +12,12 @@ public interface TokenService {
     boolean validateToken(String token, UserDetails userDetails);
     String generateToken(User user);
     String getUsernameFromToken(String token);
+    TokenClaims getClaimsFromToken(String token);
     void invalidateToken(String token);
 
     boolean isTokenBlacklisted(String token);
     public boolean isTokenInBlacklist(String token);
+    boolean isTokenInBlacklist(TokenFingerprint fingerprint);
 
-    Set<String> getAllBlacklistedTokens();
+    Set<TokenFingerprint> getAllBlacklistedTokens();
 }
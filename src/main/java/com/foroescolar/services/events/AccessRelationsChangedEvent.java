@@ -0,0 +1,10 @@
+package com.foroescolar.services.events;
+
+/**
+ * Se publica cuando cambian las asignaciones entre grados, profesores, tutores y estudiantes,
+ * de las que dependen las decisiones de acceso de SecurityService
+ *
+ * @param origen operación que modificó las asignaciones (solo para trazas)
+ */
+public record AccessRelationsChangedEvent(String origen) {
+}
@@ -0,0 +1,18 @@
+package com.foroescolar.services.events;
+
+import com.foroescolar.enums.EstadoAsistencia;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Se publica al registrar, modificar o eliminar asistencias de un grado en un día
+ *
+ * @param gradoId ID del grado de las asistencias
+ * @param fecha   día de las asistencias
+ * @param estados nuevo estado por ID de estudiante; null si la asistencia se eliminó
+ * @param toma    true si es la toma de asistencia del día, false si es una corrección posterior
+ */
+public record AsistenciasModificadasEvent(Long gradoId, LocalDate fecha, Map<Long, EstadoAsistencia> estados,
+                                          boolean toma) {
+}
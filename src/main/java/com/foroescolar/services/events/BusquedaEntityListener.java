@@ -0,0 +1,43 @@
+package com.foroescolar.services.events;
+
+import com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO;
+import com.foroescolar.model.Estudiante;
+import com.foroescolar.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Listener JPA de Estudiante y User: traduce cada alta, modificación o baja en un
+ * EntidadBuscableModificadaEvent. Hibernate lo instancia a través del contenedor de Spring.
+ */
+public class BusquedaEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BusquedaEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onGuardada(Object entidad) {
+        eventPublisher.publishEvent(new EntidadBuscableModificadaEvent(documento(entidad), false));
+    }
+
+    @PostRemove
+    public void onEliminada(Object entidad) {
+        eventPublisher.publishEvent(new EntidadBuscableModificadaEvent(documento(entidad), true));
+    }
+
+    private static ResultadoBusquedaDTO documento(Object entidad) {
+        return switch (entidad) {
+            case Estudiante e -> new ResultadoBusquedaDTO(ResultadoBusquedaDTO.TIPO_ESTUDIANTE, e.getId(),
+                    e.getNombre(), e.getApellido(), e.getDni(), null, e.getRol());
+            case User u -> new ResultadoBusquedaDTO(ResultadoBusquedaDTO.TIPO_USUARIO, u.getId(),
+                    u.getNombre(), u.getApellido(), u.getDni(), u.getEmail(), u.getRol());
+            default -> throw new IllegalArgumentException("Entidad no indexable: " + entidad.getClass().getName());
+        };
+    }
+}
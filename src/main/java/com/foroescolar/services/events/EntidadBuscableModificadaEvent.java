@@ -0,0 +1,12 @@
+package com.foroescolar.services.events;
+
+import com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO;
+
+/**
+ * Se publica al guardar o eliminar un estudiante o un usuario, para mantener el índice de búsqueda
+ *
+ * @param documento datos indexables de la entidad al momento del cambio
+ * @param eliminada si la entidad fue eliminada
+ */
+public record EntidadBuscableModificadaEvent(ResultadoBusquedaDTO documento, boolean eliminada) {
+}
@@ -0,0 +1,273 @@
+package com.foroescolar.services.impl;
+
+import com.foroescolar.dtos.notificacion.DestinatarioAlertaDTO;
+import com.foroescolar.enums.EstadoAsistencia;
+import com.foroescolar.enums.TipoNotificacionEnum;
+import com.foroescolar.model.Notificacion;
+import com.foroescolar.model.TutorLegal;
+import com.foroescolar.repository.EstudianteRepository;
+import com.foroescolar.repository.NotificacionRepository;
+import com.foroescolar.repository.TutorLegalRepository;
+import com.foroescolar.services.events.AsistenciasModificadasEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pipeline asíncrono de alertas de asistencia. Tras confirmarse una toma de asistencia, cada AUSENTE
+ * o TARDE se encola en una cola acotada; un pool de workers en hilos virtuales las agrupa en lotes,
+ * las persiste como {@link Notificacion} para el tutor legal y, si está habilitado, envía un email.
+ * El encolado nunca bloquea al hilo que confirmó la transacción: si la cola está llena la alerta
+ * se descarta y se contabiliza. La persistencia y los envíos se reintentan con backoff exponencial.
+ */
+@Slf4j
+@Component
+public class AlertaAsistenciaPipeline {
+
+    private static final Set<EstadoAsistencia> ESTADOS_ALERTA = EnumSet.of(EstadoAsistencia.AUSENTE, EstadoAsistencia.TARDE);
+
+    private final EstudianteRepository estudianteRepository;
+    private final NotificacionRepository notificacionRepository;
+    private final TutorLegalRepository tutorLegalRepository;
+    private final ObjectProvider<JavaMailSender> mailSender;
+
+    private final BlockingQueue<AlertaAsistencia> cola;
+    private final int workers;
+    private final int tamanioLote;
+    private final int maxIntentos;
+    private final Duration backoffInicial;
+    private final boolean emailHabilitado;
+    private final String emailRemitente;
+
+    private final Counter encoladas;
+    private final Counter rechazadas;
+    private final Counter persistidas;
+    private final Counter fallidas;
+    private final Counter emailsEnviados;
+    private final Counter emailsFallidos;
+
+    private ExecutorService executor;
+    private volatile boolean activo;
+
+    public AlertaAsistenciaPipeline(EstudianteRepository estudianteRepository,
+                                    NotificacionRepository notificacionRepository,
+                                    TutorLegalRepository tutorLegalRepository,
+                                    ObjectProvider<JavaMailSender> mailSender,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${api.notificaciones.alertas.capacidad:10000}") int capacidad,
+                                    @Value("${api.notificaciones.alertas.workers:2}") int workers,
+                                    @Value("${api.notificaciones.alertas.tamanio-lote:100}") int tamanioLote,
+                                    @Value("${api.notificaciones.alertas.max-intentos:3}") int maxIntentos,
+                                    @Value("${api.notificaciones.alertas.backoff:1s}") Duration backoffInicial,
+                                    @Value("${api.notificaciones.alertas.email.enabled:false}") boolean emailHabilitado,
+                                    @Value("${api.notificaciones.alertas.email.from:no-reply@foroescolar.com}") String emailRemitente) {
+        this.estudianteRepository = estudianteRepository;
+        this.notificacionRepository = notificacionRepository;
+        this.tutorLegalRepository = tutorLegalRepository;
+        this.mailSender = mailSender;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.workers = workers;
+        this.tamanioLote = tamanioLote;
+        this.maxIntentos = maxIntentos;
+        this.backoffInicial = backoffInicial;
+        this.emailHabilitado = emailHabilitado;
+        this.emailRemitente = emailRemitente;
+
+        this.encoladas = contador(meterRegistry, "encolada");
+        this.rechazadas = contador(meterRegistry, "rechazada");
+        this.persistidas = contador(meterRegistry, "persistida");
+        this.fallidas = contador(meterRegistry, "fallida");
+        this.emailsEnviados = contadorEmail(meterRegistry, "enviado");
+        this.emailsFallidos = contadorEmail(meterRegistry, "fallido");
+        Gauge.builder("asistencia.alertas.cola", cola, BlockingQueue::size)
+                .description("Alertas de asistencia pendientes de procesar")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        activo = true;
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("alertas-asistencia-", 0).factory());
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::consumir);
+        }
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        // Los workers terminan de vaciar la cola antes de salir
+        activo = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Se descartan {} alertas de asistencia pendientes al detener la aplicación", cola.size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Encola las alertas de una toma de asistencia ya confirmada sin bloquear: las que no caben
+     * en la cola se descartan y se contabilizan como rechazadas.
+     */
+    @TransactionalEventListener
+    public void onAsistenciasModificadas(AsistenciasModificadasEvent event) {
+        if (!event.toma()) {
+            return;
+        }
+        int descartadas = 0;
+        for (Map.Entry<Long, EstadoAsistencia> entry : event.estados().entrySet()) {
+            if (entry.getValue() != null && ESTADOS_ALERTA.contains(entry.getValue())) {
+                if (cola.offer(new AlertaAsistencia(entry.getKey(), event.fecha(), entry.getValue()))) {
+                    encoladas.increment();
+                } else {
+                    descartadas++;
+                }
+            }
+        }
+        if (descartadas > 0) {
+            rechazadas.increment(descartadas);
+            log.warn("Cola de alertas llena, se descartan {} alertas del grado {}", descartadas, event.gradoId());
+        }
+    }
+
+    private void consumir() {
+        List<AlertaAsistencia> lote = new ArrayList<>(tamanioLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                AlertaAsistencia primera = cola.poll(1, TimeUnit.SECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                cola.drainTo(lote, tamanioLote - 1);
+                procesarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado procesando alertas de asistencia", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void procesarLote(List<AlertaAsistencia> lote) throws InterruptedException {
+        List<EmailAlerta> emails = conReintentos("persistir " + lote.size() + " alertas", () -> persistir(lote));
+        if (emails == null) {
+            fallidas.increment(lote.size());
+            return;
+        }
+        if (!emailHabilitado) {
+            return;
+        }
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            log.warn("Envío de emails de alertas habilitado pero no hay JavaMailSender configurado");
+            emailsFallidos.increment(emails.size());
+            return;
+        }
+        for (EmailAlerta email : emails) {
+            Boolean enviado = conReintentos("enviar email a " + email.destinatario(), () -> {
+                SimpleMailMessage mensaje = new SimpleMailMessage();
+                mensaje.setFrom(emailRemitente);
+                mensaje.setTo(email.destinatario());
+                mensaje.setSubject(email.asunto());
+                mensaje.setText(email.texto());
+                sender.send(mensaje);
+                return Boolean.TRUE;
+            });
+            (enviado != null ? emailsEnviados : emailsFallidos).increment();
+        }
+    }
+
+    // Una consulta para los destinatarios y un saveAll para todo el lote
+    private List<EmailAlerta> persistir(List<AlertaAsistencia> lote) {
+        Map<Long, DestinatarioAlertaDTO> destinatarios = estudianteRepository.findDestinatariosAlertaByIdIn(
+                        lote.stream().map(AlertaAsistencia::estudianteId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(DestinatarioAlertaDTO::estudianteId, Function.identity()));
+
+        List<Notificacion> notificaciones = new ArrayList<>(lote.size());
+        List<EmailAlerta> emails = new ArrayList<>();
+        for (AlertaAsistencia alerta : lote) {
+            DestinatarioAlertaDTO destinatario = destinatarios.get(alerta.estudianteId());
+            if (destinatario == null) {
+                log.debug("El estudiante {} no tiene tutor legal, se omite la alerta", alerta.estudianteId());
+                continue;
+            }
+            String titulo = alerta.estado() == EstadoAsistencia.AUSENTE ? "Inasistencia" : "Llegada tarde";
+            String texto = destinatario.nombre() + " " + destinatario.apellido() + " registró "
+                    + alerta.estado().name() + " el " + alerta.fecha();
+
+            TutorLegal tutor = tutorLegalRepository.getReferenceById(destinatario.tutorId());
+            notificaciones.add(new Notificacion(null, titulo, alerta.fecha(), null, tutor, texto, TipoNotificacionEnum.ALERTA));
+            if (destinatario.tutorEmail() != null) {
+                emails.add(new EmailAlerta(destinatario.tutorEmail(), titulo, texto));
+            }
+        }
+        notificacionRepository.saveAll(notificaciones);
+        persistidas.increment(notificaciones.size());
+        return emails;
+    }
+
+    private <T> T conReintentos(String operacion, Callable<T> accion) throws InterruptedException {
+        long espera = backoffInicial.toMillis();
+        for (int intento = 1; ; intento++) {
+            try {
+                return accion.call();
+            } catch (Exception e) {
+                if (intento >= maxIntentos) {
+                    log.error("No se pudo {} tras {} intentos: {}", operacion, intento, e.getMessage());
+                    return null;
+                }
+                log.warn("Error al {} (intento {}), se reintenta en {} ms: {}", operacion, intento, espera, e.getMessage());
+                Thread.sleep(espera);
+                espera *= 2;
+            }
+        }
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("asistencia.alertas")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    private static Counter contadorEmail(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("asistencia.alertas.email")
+                .description("Emails de alertas de asistencia, por resultado tras agotar los reintentos")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    private record AlertaAsistencia(Long estudianteId, LocalDate fecha, EstadoAsistencia estado) {
+    }
+
+    private record EmailAlerta(String destinatario, String asunto, String texto) {
+    }
+}
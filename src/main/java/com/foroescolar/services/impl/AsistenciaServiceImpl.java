@@ -1,9 +1,16 @@
 package com.foroescolar.services.impl;
 
+import com.foroescolar.dtos.DiaCalendarioDto;
 import com.foroescolar.dtos.asistencia.AsistenciaDTO;
 import com.foroescolar.dtos.asistencia.AsistenciaRequest;
 import com.foroescolar.dtos.asistencia.AsistenciaRequestDto;
+import com.foroescolar.dtos.asistencia.AusentismoEstudianteDTO;
 import com.foroescolar.dtos.asistencia.DetalleAsistenciaByAlumno;
+import com.foroescolar.dtos.asistencia.MatrizAsistenciaDTO;
+import com.foroescolar.dtos.asistencia.PaginaAsistenciaDTO;
+import com.foroescolar.dtos.asistencia.ResultadoAsistenciaGrado;
+import com.foroescolar.dtos.asistencia.TotalesAsistenciaDTO;
+import com.foroescolar.dtos.estudiante.EstudianteGradoDTO;
 import com.foroescolar.enums.EstadoAsistencia;
 import com.foroescolar.exceptions.model.EntityNotFoundException;
 import com.foroescolar.mapper.asistencia.AsistenciaMapper;
@@ -14,18 +21,34 @@ import com.foroescolar.model.Grado;
 import com.foroescolar.repository.AsistenciaRepository;
 import com.foroescolar.repository.EstudianteRepository;
 import com.foroescolar.repository.GradoRepository;
+import com.foroescolar.repository.ResumenAsistenciaRepository;
 import com.foroescolar.services.AsistenciaService;
-import com.foroescolar.services.EstudianteService;
+import com.foroescolar.services.events.AsistenciasModificadasEvent;
+import com.foroescolar.utils.asistencia.CursorAsistencia;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class AsistenciaServiceImpl implements AsistenciaService {
 
@@ -34,19 +57,42 @@ public class AsistenciaServiceImpl implements AsistenciaService {
     private final EstudianteRepository estudianteRepository;
     private final AsistenciaMapper asistenciaMapper;
     private final FechaService fechaService;
-    private final EstudianteService estudianteService;
+    private final ResumenAsistenciaRepository resumenAsistenciaRepository;
+    private final MatrizAsistenciaCache matrizAsistenciaCache;
+    private final AusentismoCache ausentismoCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final String GRADO_NO_ENCONTRADO = "Grado no encontrado";
+    private static final int TAMANIO_PAGINA_MAXIMO = 1000;
+    private static final int TAMANIO_PAGINA_STREAM = 500;
 
     @Autowired
     public AsistenciaServiceImpl(AsistenciaRepository asistenciaRepository, AsistenciaMapper asistenciaMapper,
-                                 GradoRepository gradoRepository, EstudianteRepository estudianteRepository, FechaService fechaService, EstudianteService estudianteService) {
+                                 GradoRepository gradoRepository, EstudianteRepository estudianteRepository, FechaService fechaService,
+                                 ResumenAsistenciaRepository resumenAsistenciaRepository,
+                                 MatrizAsistenciaCache matrizAsistenciaCache, AusentismoCache ausentismoCache,
+                                 ApplicationEventPublisher eventPublisher) {
         this.asistenciaRepository = asistenciaRepository;
         this.asistenciaMapper = asistenciaMapper;
         this.gradoRepository = gradoRepository;
         this.estudianteRepository = estudianteRepository;
         this.fechaService = fechaService;
-        this.estudianteService = estudianteService;
+        this.resumenAsistenciaRepository = resumenAsistenciaRepository;
+        this.matrizAsistenciaCache = matrizAsistenciaCache;
+        this.ausentismoCache = ausentismoCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Completa el resumen de asistencias en bases que ya tenían asistencias antes de existir la tabla
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void inicializarResumen() {
+        if (resumenAsistenciaRepository.count() == 0 && asistenciaRepository.count() > 0) {
+            log.info("Reconstruyendo el resumen de asistencias a partir de las asistencias registradas");
+            resumenAsistenciaRepository.reconstruir();
+        }
     }
 
     @Transactional
@@ -57,50 +103,145 @@ public class AsistenciaServiceImpl implements AsistenciaService {
 
 
         LocalDate fechaActual= LocalDate.now();
-        Grado grado = gradoRepository.findById(request.getGradoId()).orElse(null);
-        if (grado == null) {
+        Long gradoId = request.getGradoId();
+        if (gradoId == null || !gradoRepository.existsById(gradoId)) {
             throw new EntityNotFoundException(GRADO_NO_ENCONTRADO);
         }
-        if (asistenciaRepository.existsByFechaFechaAndGradoId(fechaActual, grado.getId())){
+        if (asistenciaRepository.existsByFechaFechaAndGradoId(fechaActual, gradoId)){
             throw new EntityNotFoundException("Ya se ha pasado la asistencia anteriormente");
         }
-        Fecha fecha = fechaService.findByFecha(fechaActual);
-        if (fecha == null) {
-            fecha= fechaService.save(fechaActual);
-        }
-        grado.incrementarContador();
-        List<Estudiante> estudiantes= new ArrayList<>();
+        DiaCalendarioDto fecha = fechaService.resolver(fechaActual);
+
+        // Estado de cada estudiante, validado antes de tocar la base de datos
+        Map<Long, EstadoAsistencia> estados = new LinkedHashMap<>();
+        response.forEach((estudianteId, estado) -> estados.put(estudianteId, EstadoAsistencia.valueOf(estado)));
+
+        if (!estados.isEmpty()) {
+            // Una sola consulta para comprobar qué estudiantes pertenecen al grado
+            Set<Long> delGrado = new HashSet<>(estudianteRepository.findIdsByGradoIdAndIdIn(gradoId, estados.keySet()));
+            List<Long> ajenos = estados.keySet().stream()
+                    .filter(estudianteId -> !delGrado.contains(estudianteId))
+                    .toList();
+            if (!ajenos.isEmpty()) {
+                throw new EntityNotFoundException(mensajeEstudiantesAjenos(ajenos));
+            }
 
-        for(Map.Entry<Long,String> entry: response.entrySet()) {
-            Long estudianteId = entry.getKey();
-            EstadoAsistencia estado = EstadoAsistencia.valueOf(entry.getValue());
+            // Todas las asistencias del grado en un único batch JDBC
+            asistenciaRepository.insertAll(fecha.id(), gradoId, estados);
+            resumenAsistenciaRepository.registrar(fecha.anio(), fecha.trimestre(), estados);
+            eventPublisher.publishEvent(new AsistenciasModificadasEvent(gradoId, fechaActual, estados, true));
+        }
 
-            // Obtener el estudiante correspondiente
-            Estudiante estudiante = estudianteService.findByIdToEntity(estudianteId);
+        // Incremento atómico en SQL como última sentencia: el bloqueo de la fila del grado dura solo hasta el commit
+        gradoRepository.incrementarContadores(List.of(gradoId));
+    }
 
-            if (estudiante.getGrado().getId() == grado.getId()) {
+    @Transactional
+    @Override
+    public List<ResultadoAsistenciaGrado> asistenciasDelDia(List<AsistenciaRequest> requests) {
+        LocalDate fechaActual = LocalDate.now();
+
+        Set<Long> gradoIds = requests.stream()
+                .map(AsistenciaRequest::getGradoId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> estudianteIds = requests.stream()
+                .filter(request -> request.getAsistencia() != null)
+                .flatMap(request -> request.getAsistencia().keySet().stream())
+                .collect(Collectors.toSet());
+
+        // Una consulta por tipo de validación para todo el lote, sin importar cuántos grados lleguen
+        Set<Long> gradosExistentes = gradoIds.isEmpty() ? Set.of()
+                : new HashSet<>(gradoRepository.findIdsByIdIn(gradoIds));
+        Set<Long> gradosConAsistencia = gradosExistentes.isEmpty() ? new HashSet<>()
+                : new HashSet<>(asistenciaRepository.findGradoIdsByFechaAndGradoIdIn(fechaActual, gradosExistentes));
+        Map<Long, Long> gradoPorEstudiante = estudianteIds.isEmpty() ? Map.of()
+                : estudianteRepository.findGradoIdsByIdIn(estudianteIds).stream()
+                .collect(Collectors.toMap(EstudianteGradoDTO::estudianteId, EstudianteGradoDTO::gradoId));
+
+        List<ResultadoAsistenciaGrado> resultados = new ArrayList<>(requests.size());
+        Map<Long, Map<Long, EstadoAsistencia>> estadosPorGrado = new LinkedHashMap<>();
+
+        for (AsistenciaRequest request : requests) {
+            Long gradoId = request.getGradoId();
+            if (gradoId == null || !gradosExistentes.contains(gradoId)) {
+                resultados.add(new ResultadoAsistenciaGrado(gradoId,
+                        ResultadoAsistenciaGrado.Estado.GRADO_NO_ENCONTRADO, GRADO_NO_ENCONTRADO));
+                continue;
+            }
+            // También cubre un mismo grado repetido dentro del lote
+            if (!gradosConAsistencia.add(gradoId)) {
+                resultados.add(new ResultadoAsistenciaGrado(gradoId,
+                        ResultadoAsistenciaGrado.Estado.YA_REGISTRADA, "Ya se ha pasado la asistencia anteriormente"));
+                continue;
+            }
 
-                // Crear la asistencia para el estudiante
-                Asistencia asistencia = new Asistencia();
-                asistencia.setFecha(fecha); // Fecha actual
-                asistencia.setEstudiante(estudiante);
-                asistencia.setGrado(grado);
-                asistencia.setEstado(estado);
+            Map<Long, EstadoAsistencia> estados = new LinkedHashMap<>();
+            String datosInvalidos = leerEstados(request.getAsistencia(), estados);
+            if (datosInvalidos != null) {
+                gradosConAsistencia.remove(gradoId);
+                resultados.add(new ResultadoAsistenciaGrado(gradoId,
+                        ResultadoAsistenciaGrado.Estado.DATOS_INVALIDOS, datosInvalidos));
+                continue;
+            }
 
-                asistenciaRepository.save(asistencia);
-            } else {
-                estudiantes.add(estudiante);
+            List<Long> ajenos = estados.keySet().stream()
+                    .filter(estudianteId -> !gradoId.equals(gradoPorEstudiante.get(estudianteId)))
+                    .toList();
+            if (!ajenos.isEmpty()) {
+                gradosConAsistencia.remove(gradoId);
+                resultados.add(new ResultadoAsistenciaGrado(gradoId,
+                        ResultadoAsistenciaGrado.Estado.ESTUDIANTES_AJENOS, mensajeEstudiantesAjenos(ajenos)));
+                continue;
             }
+
+            estadosPorGrado.put(gradoId, estados);
+            resultados.add(new ResultadoAsistenciaGrado(gradoId, ResultadoAsistenciaGrado.Estado.REGISTRADA,
+                    "Asistencia guardada exitosamente (" + estados.size() + " estudiantes)"));
+        }
+
+        if (!estadosPorGrado.isEmpty()) {
+            // Una sola resolución de la fecha del día para todo el lote
+            DiaCalendarioDto fecha = fechaService.resolver(fechaActual);
+            asistenciaRepository.insertAll(fecha.id(), estadosPorGrado);
+            Map<Long, EstadoAsistencia> estados = new LinkedHashMap<>();
+            estadosPorGrado.values().forEach(estados::putAll);
+            resumenAsistenciaRepository.registrar(fecha.anio(), fecha.trimestre(), estados);
+            estadosPorGrado.forEach((gradoId, estadosDelGrado) ->
+                    eventPublisher.publishEvent(new AsistenciasModificadasEvent(gradoId, fechaActual, estadosDelGrado, true)));
+            gradoRepository.incrementarContadores(estadosPorGrado.keySet());
         }
-        if (!estudiantes.isEmpty()) {
-            StringBuilder mensajeError = new StringBuilder("Los estudiantes con ID: ");
-            for (Estudiante estudiante : estudiantes) {
-                mensajeError.append(estudiante.getId()).append(", ");
+        return resultados;
+    }
+
+    /**
+     * Convierte los estados recibidos de un grado; devuelve el motivo si alguno no es válido
+     */
+    private String leerEstados(Map<Long, String> recibidos, Map<Long, EstadoAsistencia> estados) {
+        if (recibidos == null) {
+            return null;
+        }
+        for (Map.Entry<Long, String> entrada : recibidos.entrySet()) {
+            if (entrada.getKey() == null || entrada.getValue() == null) {
+                return "Estado de asistencia vacío para el estudiante " + entrada.getKey();
             }
-            mensajeError.delete(mensajeError.length() - 2, mensajeError.length()); // eliminar la última coma y espacio
-            mensajeError.append(" no pertenecen al grado");
-            throw new EntityNotFoundException(mensajeError.toString());
+            try {
+                estados.put(entrada.getKey(), EstadoAsistencia.valueOf(entrada.getValue()));
+            } catch (IllegalArgumentException e) {
+                return "Estado de asistencia inválido: " + e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private String mensajeEstudiantesAjenos(List<Long> ajenos) {
+        StringBuilder mensajeError = new StringBuilder("Los estudiantes con ID: ");
+        for (Long estudianteId : ajenos) {
+            mensajeError.append(estudianteId).append(", ");
         }
+        mensajeError.delete(mensajeError.length() - 2, mensajeError.length()); // eliminar la última coma y espacio
+        mensajeError.append(" no pertenecen al grado");
+        return mensajeError.toString();
     }
     @Override
     @Transactional
@@ -109,12 +250,14 @@ public class AsistenciaServiceImpl implements AsistenciaService {
         Optional<Asistencia> response = asistenciaRepository.findById(requestDto.getId());
         if (response.isPresent()) {
             Asistencia asistencia= response.get();
+            EstadoAsistencia anterior = asistencia.getEstado();
             if("JUSTIFICADO".equals(requestDto.getEstado())|| "TARDE".equals(requestDto.getEstado())){
                 asistencia.setEstado(EstadoAsistencia.valueOf(requestDto.getEstado()));
                 asistencia.setObservaciones(requestDto.getJustificativos());
             }
 
             asistenciaRepository.save(asistencia);
+            actualizarResumen(asistencia, anterior, asistencia.getEstado());
         } else{
             throw new EntityNotFoundException("No se puede cambiar el estado de la asistencia");
         }
@@ -138,22 +281,87 @@ public class AsistenciaServiceImpl implements AsistenciaService {
 
     @Override
     public Iterable<AsistenciaDTO> findAll() {
-        return asistenciaRepository.findAll().stream()
-                .map(asistenciaMapper::toResponseDto)
-                .toList();
+        return asistenciaMapper.toResponseDtoList(asistenciaRepository.findAll());
     }
 
     @Override
+    @Transactional
     public void deleteById(Long asistenciaId) {
-        asistenciaRepository.deleteById(asistenciaId);
+        asistenciaRepository.findById(asistenciaId).ifPresent(asistencia -> {
+            actualizarResumen(asistencia, asistencia.getEstado(), null);
+            asistenciaRepository.delete(asistencia);
+        });
+    }
+
+    private void actualizarResumen(Asistencia asistencia, EstadoAsistencia anterior, EstadoAsistencia nuevo) {
+        if (asistencia.getEstudiante() == null || asistencia.getFecha() == null) {
+            return;
+        }
+        Fecha fecha = asistencia.getFecha();
+        Long estudianteId = asistencia.getEstudiante().getId();
+        resumenAsistenciaRepository.cambiarEstado(estudianteId, fecha.getAnio(), fecha.getTrimestre(), anterior, nuevo);
+        if (asistencia.getGrado() != null) {
+            eventPublisher.publishEvent(new AsistenciasModificadasEvent(asistencia.getGrado().getId(),
+                    fecha.getFecha(), Collections.singletonMap(estudianteId, nuevo), false));
+        }
     }
 
     // --------------------------- CONSULTAS ---------------------------
+    @Override
+    public PaginaAsistenciaDTO findPage(String cursor, int size) {
+        return pagina(CursorAsistencia.of(cursor), size, asistenciaRepository::findSiguientes);
+    }
+
+    @Override
+    public PaginaAsistenciaDTO getPageByGrado(Long gradoId, String cursor, int size) {
+        return pagina(CursorAsistencia.of(cursor), size,
+                (fechaId, id, limit) -> asistenciaRepository.findSiguientesByGradoId(gradoId, fechaId, id, limit));
+    }
+
+    @Override
+    public PaginaAsistenciaDTO getPageByEstudiante(Long estudianteId, String cursor, int size) {
+        return pagina(CursorAsistencia.of(cursor), size,
+                (fechaId, id, limit) -> asistenciaRepository.findSiguientesByEstudianteId(estudianteId, fechaId, id, limit));
+    }
+
+    @Override
+    public Stream<AsistenciaDTO> streamAll() {
+        return recorrer(asistenciaRepository::findSiguientes);
+    }
+
+    @Override
+    public Stream<AsistenciaDTO> streamByGrado(Long gradoId) {
+        return recorrer((fechaId, id, limit) -> asistenciaRepository.findSiguientesByGradoId(gradoId, fechaId, id, limit));
+    }
+
+    private PaginaAsistenciaDTO pagina(CursorAsistencia cursor, int size, ConsultaPagina consulta) {
+        int limite = Math.clamp(size, 1, TAMANIO_PAGINA_MAXIMO);
+        List<Asistencia> asistencias = consulta.siguientes(cursor.fechaId(), cursor.id(), Limit.of(limite));
+        String siguienteCursor = null;
+        if (asistencias.size() == limite) {
+            Asistencia ultima = asistencias.get(asistencias.size() - 1);
+            siguienteCursor = new CursorAsistencia(ultima.getFecha().getId(), ultima.getId()).toToken();
+        }
+        return new PaginaAsistenciaDTO(asistenciaMapper.toResponseDtoList(asistencias), siguienteCursor);
+    }
+
+    // Cada página se consulta solo cuando se terminó de consumir la anterior
+    private Stream<AsistenciaDTO> recorrer(ConsultaPagina consulta) {
+        return Stream.iterate(pagina(CursorAsistencia.INICIO, TAMANIO_PAGINA_STREAM, consulta), Objects::nonNull,
+                        actual -> actual.siguienteCursor() == null ? null
+                                : pagina(CursorAsistencia.of(actual.siguienteCursor()), TAMANIO_PAGINA_STREAM, consulta))
+                .flatMap(actual -> actual.contenido().stream());
+    }
+
+    @FunctionalInterface
+    private interface ConsultaPagina {
+        List<Asistencia> siguientes(Long fechaId, Long id, Limit limit);
+    }
+
     @Override
     public Iterable<AsistenciaDTO> getAsistenciasByEstudianteID(Long estudianteId) {
         List<Asistencia> asistencias = asistenciaRepository.findByEstudianteId(estudianteId);
-        return asistencias.stream().map(asistenciaMapper::toResponseDto)
-                .toList();
+        return asistenciaMapper.toResponseDtoList(asistencias);
     }
     @Override
     public Iterable<AsistenciaDTO> getAsistenciasByGradoAndEstudiante(Long tutorId, Long gradoId) {
@@ -163,10 +371,10 @@ public class AsistenciaServiceImpl implements AsistenciaService {
             throw new EntityNotFoundException(GRADO_NO_ENCONTRADO);
         }
         List<Estudiante> estudiantes = estudianteRepository.findByTutorId(tutorId);
-        return estudiantes.stream().
+        List<Asistencia> asistencias = estudiantes.stream().
                 flatMap(estudiante -> asistenciaRepository.findByEstudianteIdAndGradoId(estudiante.getId(), gradoId).stream())
-                .map(asistenciaMapper::toResponseDto)
                 .toList();
+        return asistenciaMapper.toResponseDtoList(asistencias);
     }
 
     @Override
@@ -175,8 +383,7 @@ public class AsistenciaServiceImpl implements AsistenciaService {
         Optional<Grado> grado = gradoRepository.findById(gradoId);
         if (grado.isPresent()) {
             List<Asistencia> asistencias = asistenciaRepository.findByGradoId(gradoId);
-            return asistencias.stream()
-                    .map(asistenciaMapper::toResponseDto).toList();
+            return asistenciaMapper.toResponseDtoList(asistencias);
         }
         throw new EntityNotFoundException(GRADO_NO_ENCONTRADO);
     }
@@ -193,7 +400,46 @@ public class AsistenciaServiceImpl implements AsistenciaService {
         if (asistencias.isEmpty()) {
             throw new EntityNotFoundException("No se encontraron asistencias en el rango de fechas");
         }
-        return asistencias.stream().map(asistenciaMapper::toResponseDto)
+        return asistenciaMapper.toResponseDtoList(asistencias);
+    }
+
+    @Override
+    public MatrizAsistenciaDTO getMatrizByGrado(Long gradoId, LocalDate fechaDesde, LocalDate fechaHasta, Long estudianteId) {
+        // La existencia se comprueba antes de cargar la matriz: un id inexistente no ocupa la caché
+        if (!gradoRepository.existsById(gradoId)) {
+            throw new EntityNotFoundException(GRADO_NO_ENCONTRADO);
+        }
+        return matrizAsistenciaCache.consultar(gradoId, fechaDesde, fechaHasta, estudianteId);
+    }
+
+    @Override
+    public List<AusentismoEstudianteDTO> getAusentismoByGrado(Long gradoId, Double umbral) {
+        if (!gradoRepository.existsById(gradoId)) {
+            throw new EntityNotFoundException(GRADO_NO_ENCONTRADO);
+        }
+        LocalDate hoy = LocalDate.now();
+        List<AusentismoEstudianteDTO> indicadores = ausentismoCache.consultar(gradoId, hoy);
+        if (indicadores.isEmpty()) {
+            return indicadores;
+        }
+
+        // Tasa del trimestre desde el resumen materializado: una consulta para todo el grado
+        DiaCalendarioDto dia = fechaService.resolver(hoy);
+        Set<Long> estudianteIds = indicadores.stream().map(AusentismoEstudianteDTO::estudianteId).collect(Collectors.toSet());
+        Map<Long, Double> tasasTrimestre = resumenAsistenciaRepository
+                .findByIdEstudianteIdInAndIdAnioAndIdTrimestre(estudianteIds, dia.anio(), dia.trimestre())
+                .stream()
+                .filter(resumen -> resumen.getTotal() > 0)
+                .collect(Collectors.toMap(resumen -> resumen.getId().getEstudianteId(),
+                        resumen -> (double) resumen.getAusentes() / resumen.getTotal()));
+
+        return indicadores.stream()
+                .map(dto -> new AusentismoEstudianteDTO(dto.estudianteId(), dto.rachaAusencias(), dto.inicioRacha(),
+                        dto.clases30Dias(), dto.ausencias30Dias(), dto.tasa30Dias(), dto.enRiesgoDesde(),
+                        tasasTrimestre.get(dto.estudianteId())))
+                .filter(dto -> umbral == null || dto.tasa30Dias() > umbral
+                        || (dto.tasaTrimestre() != null && dto.tasaTrimestre() > umbral))
+                .sorted(Comparator.comparingDouble(AusentismoEstudianteDTO::tasa30Dias).reversed())
                 .toList();
     }
 
@@ -202,13 +448,14 @@ public class AsistenciaServiceImpl implements AsistenciaService {
         return estudianteRepository.findById(estudianteId)
                 .map(estudiante -> {
                     int totalClases = estudiante.getGrado().getContador();
+                    TotalesAsistenciaDTO totales = resumenAsistenciaRepository.findTotalesByEstudianteId(estudianteId);
                     DetalleAsistenciaByAlumno detalleAsistencia = new DetalleAsistenciaByAlumno();
                     detalleAsistencia.setNombreEstudiante(estudiante.getNombre());
                     detalleAsistencia.setIdEstudiante(estudianteId);
-                    detalleAsistencia.setAsistenciasPresente(asistenciaRepository.countByEstudianteIdAndEstado(estudianteId, EstadoAsistencia.PRESENTE));
-                    detalleAsistencia.setAsistenciasAusente(asistenciaRepository.countByEstudianteIdAndEstado(estudianteId, EstadoAsistencia.AUSENTE));
-                    detalleAsistencia.setAsistenciasTarde(asistenciaRepository.countByEstudianteIdAndEstado(estudianteId, EstadoAsistencia.TARDE));
-                    detalleAsistencia.setAsistenciasJustificadas(asistenciaRepository.countByEstudianteIdAndEstado(estudianteId, EstadoAsistencia.JUSTIFICADO));
+                    detalleAsistencia.setAsistenciasPresente(totales.presentes().intValue());
+                    detalleAsistencia.setAsistenciasAusente(totales.ausentes().intValue());
+                    detalleAsistencia.setAsistenciasTarde(totales.tardes().intValue());
+                    detalleAsistencia.setAsistenciasJustificadas(totales.justificados().intValue());
                     detalleAsistencia.setGrado(estudiante.getGrado().getCurso() + " " + estudiante.getGrado().getAula());
                     detalleAsistencia.setClasesVistasDelGrado(totalClases);
 
@@ -0,0 +1,148 @@
+package com.foroescolar.services.impl;
+
+import com.foroescolar.config.redis.ClusterEventStream;
+import com.foroescolar.dtos.asistencia.AusentismoEstudianteDTO;
+import com.foroescolar.dtos.asistencia.CeldaAsistenciaDTO;
+import com.foroescolar.enums.EstadoAsistencia;
+import com.foroescolar.repository.AsistenciaRepository;
+import com.foroescolar.services.events.AccessRelationsChangedEvent;
+import com.foroescolar.services.events.AsistenciasModificadasEvent;
+import com.foroescolar.utils.asistencia.AusentismoEstudiante;
+import com.foroescolar.utils.cache.LoadTimeExpiry;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indicadores de ausentismo por grado, construidos una vez recorriendo en orden las asistencias
+ * del grado y actualizados en O(1) por estudiante con cada toma confirmada. Las correcciones
+ * posteriores (justificaciones, bajas) invalidan el grado, que se reconstruye en la siguiente consulta.
+ * Los cambios confirmados en otros nodos llegan por {@link ClusterEventStream} e invalidan el grado;
+ * además, cada grado se reconstruye como máximo {@code ttl} después de cargarse.
+ */
+@Slf4j
+@Component
+public class AusentismoCache {
+
+    private static final String GRADO_ID = "gradoId";
+
+    private final AsistenciaRepository asistenciaRepository;
+    private final ClusterEventStream clusterEventStream;
+    private final LoadingCache<Long, AusentismoGrado> grados;
+    private final double umbral;
+    private final int minimoClases;
+    private final Counter cruces;
+
+    public AusentismoCache(AsistenciaRepository asistenciaRepository, MeterRegistry meterRegistry,
+                           ClusterEventStream clusterEventStream,
+                           @Value("${api.asistencia.ausentismo.umbral:0.2}") double umbral,
+                           @Value("${api.asistencia.ausentismo.minimo-clases:5}") int minimoClases,
+                           @Value("${api.asistencia.ausentismo.max-size:500}") long maxSize,
+                           @Value("${api.asistencia.ausentismo.ttl:12h}") Duration ttl) {
+        this.asistenciaRepository = asistenciaRepository;
+        this.clusterEventStream = clusterEventStream;
+        this.umbral = umbral;
+        this.minimoClases = minimoClases;
+        this.grados = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new LoadTimeExpiry<Long, AusentismoGrado>(ttl))
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, grados, "asistencia.ausentismo.cache");
+        this.cruces = Counter.builder("asistencia.ausentismo.cruces")
+                .description("Estudiantes que pasaron a superar el umbral de ausentismo")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void suscribirCambiosRemotos() {
+        clusterEventStream.suscribir(ClusterEventStream.CANAL_AUSENTISMO,
+                campos -> grados.invalidate(Long.valueOf(campos.get(GRADO_ID))));
+        clusterEventStream.suscribir(ClusterEventStream.CANAL_ACCESO, campos -> grados.invalidateAll());
+    }
+
+    /**
+     * Indicadores de los estudiantes del grado a la fecha indicada
+     */
+    public List<AusentismoEstudianteDTO> consultar(Long gradoId, LocalDate referencia) {
+        return grados.get(gradoId).consultar(referencia);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAsistenciasModificadas(AsistenciasModificadasEvent event) {
+        if (!event.toma()) {
+            grados.invalidate(event.gradoId());
+        } else {
+            grados.asMap().computeIfPresent(event.gradoId(),
+                    (gradoId, grado) -> grado.registrar(event.fecha(), event.estados(), true) ? grado : null);
+        }
+        // El resto de nodos descarta su copia del grado
+        clusterEventStream.publicar(ClusterEventStream.CANAL_AUSENTISMO, Map.of(GRADO_ID, event.gradoId().toString()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessRelationsChanged(AccessRelationsChangedEvent event) {
+        grados.invalidateAll();
+        log.debug("Indicadores de ausentismo invalidados por: {}", event.origen());
+    }
+
+    private AusentismoGrado load(Long gradoId) {
+        List<CeldaAsistenciaDTO> celdas = new ArrayList<>(asistenciaRepository.findCeldasByGradoId(gradoId));
+        celdas.sort(Comparator.comparing(CeldaAsistenciaDTO::fecha));
+
+        AusentismoGrado grado = new AusentismoGrado();
+        for (CeldaAsistenciaDTO celda : celdas) {
+            if (celda.estudianteId() != null && celda.estado() != null) {
+                grado.registrar(celda.fecha(), Map.of(celda.estudianteId(), celda.estado()), false);
+            }
+        }
+        return grado;
+    }
+
+    private final class AusentismoGrado {
+        private final Map<Long, AusentismoEstudiante> estudiantes = new HashMap<>();
+
+        // Los cruces solo se contabilizan para tomas nuevas, no al reconstruir el histórico
+        private synchronized boolean registrar(LocalDate fecha, Map<Long, EstadoAsistencia> estados, boolean contarCruces) {
+            for (Map.Entry<Long, EstadoAsistencia> entry : estados.entrySet()) {
+                if (entry.getValue() == null) {
+                    return false;
+                }
+                AusentismoEstudiante estudiante = estudiantes.computeIfAbsent(entry.getKey(), id -> new AusentismoEstudiante());
+                if (!estudiante.registrar(fecha, entry.getValue())) {
+                    return false;
+                }
+                if (estudiante.evaluarUmbral(umbral, minimoClases) && contarCruces) {
+                    cruces.increment();
+                    log.info("El estudiante {} superó el umbral de ausentismo el {}", entry.getKey(), fecha);
+                }
+            }
+            return true;
+        }
+
+        private synchronized List<AusentismoEstudianteDTO> consultar(LocalDate referencia) {
+            List<AusentismoEstudianteDTO> resultado = new ArrayList<>(estudiantes.size());
+            estudiantes.forEach((estudianteId, estudiante) -> {
+                AusentismoEstudiante.Conteo conteo = estudiante.contar(referencia);
+                resultado.add(new AusentismoEstudianteDTO(estudianteId, estudiante.getRacha(), estudiante.getInicioRacha(),
+                        conteo.clases(), conteo.ausencias(), conteo.tasa(), estudiante.getEnRiesgoDesde(), null));
+            });
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.foroescolar.services.impl;
+
+import com.foroescolar.config.redis.ClusterEventStream;
+import com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO;
+import com.foroescolar.enums.RoleEnum;
+import com.foroescolar.repository.EstudianteRepository;
+import com.foroescolar.repository.UserRepository;
+import com.foroescolar.services.BusquedaService;
+import com.foroescolar.services.events.EntidadBuscableModificadaEvent;
+import com.foroescolar.utils.busqueda.IndiceBusqueda;
+import com.foroescolar.utils.busqueda.IndiceBusqueda.Coincidencia;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Búsqueda de estudiantes y usuarios sobre índices invertidos en memoria. Los índices se construyen
+ * al arrancar con una proyección de cada tabla y se mantienen con los eventos de las entidades,
+ * aplicados solo cuando la transacción que los produjo se confirma. Cada cambio confirmado se publica
+ * en {@link ClusterEventStream} con los datos indexables, y los demás nodos lo aplican sin consultar
+ * la base; los cambios que se pierdan con Redis caído se corrigen en la reconstrucción periódica.
+ */
+@Slf4j
+@Service
+public class BusquedaServiceImpl implements BusquedaService {
+
+    // Campos de los mensajes del canal de búsqueda
+    private static final String TIPO = "tipo";
+    private static final String ID = "id";
+    private static final String NOMBRE = "nombre";
+    private static final String APELLIDO = "apellido";
+    private static final String DNI = "dni";
+    private static final String EMAIL = "email";
+    private static final String ROL = "rol";
+    private static final String ELIMINADA = "eliminada";
+
+    private final EstudianteRepository estudianteRepository;
+    private final UserRepository userRepository;
+    private final ClusterEventStream clusterEventStream;
+    private final MeterRegistry meterRegistry;
+    // Se reemplazan completos en cada reconstrucción, así las búsquedas nunca ven un índice a medio cargar
+    private volatile IndiceBusqueda<ResultadoBusquedaDTO> estudiantes = new IndiceBusqueda<>();
+    private volatile IndiceBusqueda<ResultadoBusquedaDTO> usuarios = new IndiceBusqueda<>();
+    private final Timer consultas;
+    private final int limiteMaximo;
+
+    public BusquedaServiceImpl(EstudianteRepository estudianteRepository, UserRepository userRepository,
+                               MeterRegistry meterRegistry, ClusterEventStream clusterEventStream,
+                               @Value("${api.busqueda.limite-maximo:100}") int limiteMaximo) {
+        this.estudianteRepository = estudianteRepository;
+        this.userRepository = userRepository;
+        this.clusterEventStream = clusterEventStream;
+        this.meterRegistry = meterRegistry;
+        this.limiteMaximo = limiteMaximo;
+        this.consultas = Timer.builder("busqueda.consulta")
+                .description("Tiempo de resolución de las búsquedas en el índice")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    // Los gauges y la suscripción referencian a 'this': se registran con el bean ya construido
+    @PostConstruct
+    public void iniciar() {
+        Gauge.builder("busqueda.documentos", this, servicio -> servicio.estudiantes.size() + servicio.usuarios.size())
+                .description("Estudiantes y usuarios indexados")
+                .register(meterRegistry);
+        Gauge.builder("busqueda.terminos", this, servicio -> servicio.estudiantes.terminos() + servicio.usuarios.terminos())
+                .description("Términos distintos en los índices de búsqueda")
+                .register(meterRegistry);
+
+        clusterEventStream.suscribir(ClusterEventStream.CANAL_BUSQUEDA, this::aplicarCambioRemoto);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${api.busqueda.reconstruccion.cron:0 30 3 * * *}")
+    @Transactional(readOnly = true)
+    public void construirIndice() {
+        IndiceBusqueda<ResultadoBusquedaDTO> nuevosEstudiantes = new IndiceBusqueda<>();
+        IndiceBusqueda<ResultadoBusquedaDTO> nuevosUsuarios = new IndiceBusqueda<>();
+        estudianteRepository.findDocumentosBusqueda().forEach(documento -> indexar(nuevosEstudiantes, documento));
+        userRepository.findDocumentosBusqueda().forEach(documento -> indexar(nuevosUsuarios, documento));
+        estudiantes = nuevosEstudiantes;
+        usuarios = nuevosUsuarios;
+        log.info("Índice de búsqueda construido: {} estudiantes, {} usuarios", estudiantes.size(), usuarios.size());
+    }
+
+    @Override
+    public List<ResultadoBusquedaDTO> buscar(String consulta, int limite) {
+        int acotado = Math.clamp(limite, 1, limiteMaximo);
+        return consultas.record(() -> {
+            List<Coincidencia<ResultadoBusquedaDTO>> coincidencias = new ArrayList<>(estudiantes.buscar(consulta, acotado));
+            coincidencias.addAll(usuarios.buscar(consulta, acotado));
+            return coincidencias.stream()
+                    .sorted(Comparator.comparingInt((Coincidencia<ResultadoBusquedaDTO> c) -> c.puntaje()).reversed())
+                    .limit(acotado)
+                    .map(Coincidencia::documento)
+                    .toList();
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntidadBuscableModificada(EntidadBuscableModificadaEvent event) {
+        ResultadoBusquedaDTO documento = event.documento();
+        if (documento.id() == null) {
+            return;
+        }
+        aplicar(documento, event.eliminada());
+        clusterEventStream.publicar(ClusterEventStream.CANAL_BUSQUEDA, mensaje(documento, event.eliminada()));
+    }
+
+    private void aplicarCambioRemoto(Map<String, String> campos) {
+        try {
+            String rol = campos.get(ROL);
+            ResultadoBusquedaDTO documento = new ResultadoBusquedaDTO(campos.get(TIPO), Long.valueOf(campos.get(ID)),
+                    campos.get(NOMBRE), campos.get(APELLIDO), campos.get(DNI), campos.get(EMAIL),
+                    rol == null ? null : RoleEnum.valueOf(rol));
+            aplicar(documento, Boolean.parseBoolean(campos.get(ELIMINADA)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Mensaje de búsqueda inválido {}: {}", campos, e.getMessage());
+        }
+    }
+
+    private void aplicar(ResultadoBusquedaDTO documento, boolean eliminada) {
+        if (eliminada) {
+            indice(documento).eliminar(documento.id());
+        } else {
+            indexar(indice(documento), documento);
+        }
+    }
+
+    // Los streams de Redis no admiten valores nulos: los campos vacíos se omiten
+    private static Map<String, String> mensaje(ResultadoBusquedaDTO documento, boolean eliminada) {
+        Map<String, String> campos = new HashMap<>();
+        campos.put(TIPO, documento.tipo());
+        campos.put(ID, documento.id().toString());
+        campos.put(ELIMINADA, Boolean.toString(eliminada));
+        if (documento.nombre() != null) {
+            campos.put(NOMBRE, documento.nombre());
+        }
+        if (documento.apellido() != null) {
+            campos.put(APELLIDO, documento.apellido());
+        }
+        if (documento.dni() != null) {
+            campos.put(DNI, documento.dni());
+        }
+        if (documento.email() != null) {
+            campos.put(EMAIL, documento.email());
+        }
+        if (documento.rol() != null) {
+            campos.put(ROL, documento.rol().name());
+        }
+        return campos;
+    }
+
+    private static void indexar(IndiceBusqueda<ResultadoBusquedaDTO> indice, ResultadoBusquedaDTO documento) {
+        indice.indexar(documento.id(), documento,
+                documento.nombre(), documento.apellido(), documento.dni(), documento.email());
+    }
+
+    private IndiceBusqueda<ResultadoBusquedaDTO> indice(ResultadoBusquedaDTO documento) {
+        return documento.esEstudiante() ? estudiantes : usuarios;
+    }
+}
@@ -11,8 +11,10 @@ import com.foroescolar.model.Asistencia;
 import com.foroescolar.model.Estudiante;
 import com.foroescolar.repository.EstudianteRepository;
 import com.foroescolar.services.EstudianteService;
+import com.foroescolar.services.events.AccessRelationsChangedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,7 +24,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -31,15 +32,18 @@ public class EstudianteServiceImpl implements EstudianteService {
     private final EstudianteRepository estudianteRepository;
     private final EstudianteMapper estudianteMapper;
     private final AsistenciaMapper asistenciaMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public EstudianteServiceImpl(
             EstudianteRepository estudianteRepository,
             EstudianteMapper estudianteMapper,
-            AsistenciaMapper asistenciaMapper) {
+            AsistenciaMapper asistenciaMapper,
+            ApplicationEventPublisher eventPublisher) {
         this.estudianteRepository = estudianteRepository;
         this.estudianteMapper = estudianteMapper;
         this.asistenciaMapper = asistenciaMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -47,10 +51,7 @@ public class EstudianteServiceImpl implements EstudianteService {
     public List<EstudiantePerfilDto> findAllStudents() {
         // Usando consulta optimizada con proyección
         log.debug("Obteniendo todos los estudiantes como PerfilDto");
-        return estudianteRepository.findAll()
-                .stream()
-                .map(estudianteMapper::toPerfilDto)
-                .collect(Collectors.toList());
+        return estudianteRepository.findAllPerfil();
     }
 
     @Override
@@ -58,8 +59,7 @@ public class EstudianteServiceImpl implements EstudianteService {
     public Page<EstudianteListaDTO> obtenerTodosPaginados(int pagina, int tamano) {
         log.debug("Obteniendo estudiantes paginados: página {}, tamaño {}", pagina, tamano);
         Pageable pageable = PageRequest.of(pagina, tamano);
-        return estudianteRepository.findAll(pageable)
-                .map(estudianteMapper::mapearAListaDTO);
+        return estudianteRepository.findAllLista(pageable);
     }
 
     @Override
@@ -67,7 +67,8 @@ public class EstudianteServiceImpl implements EstudianteService {
     public Optional<EstudianteDetalleDTO> obtenerDetallePorId(Long id) {
         log.debug("Obteniendo detalles del estudiante con ID: {}", id);
         // Usamos la consulta optimizada con joins en lugar de findById simple
-        return estudianteRepository.findByIdWithDetails(id)
+        return estudianteRepository.findByIdWithDetails(id).stream()
+                .findFirst()
                 .map(estudianteMapper::mapearADetalleDTO);
     }
 
@@ -75,20 +76,14 @@ public class EstudianteServiceImpl implements EstudianteService {
     @Transactional(readOnly = true)
     public List<EstudianteListaDTO> obtenerPorGrado(Long gradoId) {
         log.debug("Buscando estudiantes del grado: {}", gradoId);
-        return estudianteRepository.findByGradoId(gradoId)
-                .stream()
-                .map(estudianteMapper::mapearAListaDTO)
-                .collect(Collectors.toList());
+        return estudianteRepository.findListaByGradoId(gradoId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<EstudiantePerfilDto> findByGradoId(Long gradoId) {
         log.debug("Buscando perfiles de estudiantes del grado: {}", gradoId);
-        return estudianteRepository.findByGradoId(gradoId)
-                .stream()
-                .map(estudianteMapper::toPerfilDto)
-                .collect(Collectors.toList());
+        return estudianteRepository.findPerfilByGradoId(gradoId);
     }
 
     @Override
@@ -106,6 +101,7 @@ public class EstudianteServiceImpl implements EstudianteService {
         estudiante.setActivo(true);
 
         estudiante = estudianteRepository.save(estudiante);
+        eventPublisher.publishEvent(new AccessRelationsChangedEvent("estudiante.crear"));
         return estudianteMapper.mapearADetalleDTO(estudiante);
     }
 
@@ -126,8 +122,13 @@ public class EstudianteServiceImpl implements EstudianteService {
 
         estudianteMapper.actualizarDesdeDTO(estudiante, dto);
         estudiante = estudianteRepository.save(estudiante);
+        eventPublisher.publishEvent(new AccessRelationsChangedEvent("estudiante.actualizar"));
 
-        return estudianteMapper.mapearADetalleDTO(estudiante);
+        // Los tamaños de colección salen de la consulta de detalle, sin inicializar las colecciones
+        return estudianteRepository.findByIdWithDetails(estudiante.getId()).stream()
+                .findFirst()
+                .map(estudianteMapper::mapearADetalleDTO)
+                .orElseThrow(() -> new EntityNotFoundException("Estudiante no encontrado"));
     }
 
     @Override
@@ -138,6 +139,7 @@ public class EstudianteServiceImpl implements EstudianteService {
         Estudiante estudiante = estudianteRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Estudiante no encontrado"));
         estudianteRepository.delete(estudiante);
+        eventPublisher.publishEvent(new AccessRelationsChangedEvent("estudiante.eliminar"));
     }
 
     @Override
@@ -161,9 +163,7 @@ public class EstudianteServiceImpl implements EstudianteService {
         log.debug("Obteniendo asistencias del estudiante con ID: {}", estudianteId);
 
         List<Asistencia> asistencias = estudianteRepository.findByEstudianteId(estudianteId);
-        return asistencias.stream()
-                .map(asistenciaMapper::toResponseDto)
-                .collect(Collectors.toList());
+        return asistenciaMapper.toResponseDtoList(asistencias);
     }
 
     @Override
@@ -1,29 +1,68 @@
 package com.foroescolar.services.impl;
 
-import com.foroescolar.model.Fecha;
+import com.foroescolar.dtos.DiaCalendarioDto;
 import com.foroescolar.repository.FechaRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Dimensión de calendario en memoria. Un job crea por adelantado las fechas del año lectivo en curso
+ * y del siguiente con semántica insert-if-absent, y publica un mapa inmutable fecha → fila de fecha.
+ * Resolver el día de una asistencia es un lookup en ese mapa; la restricción única sobre la columna
+ * fecha evita duplicados aunque dos registros concurrentes resuelvan un día fuera del mapa (la crea,
+ * fusionando los duplicados previos, la migración V2__DeduplicarFechas).
+ */
+@Slf4j
 @Service
 public class FechaService {
 
 private final FechaRepository fechaRepository;
 
+    private volatile Map<LocalDate, DiaCalendarioDto> calendario = Map.of();
+
 @Autowired
     public FechaService(FechaRepository fechaRepository) {
         this.fechaRepository = fechaRepository;
     }
 
-    public Fecha save(LocalDate fecha) {
-       return fechaRepository.save(new Fecha(fecha));
-    }
+    /**
+     * Crea las fechas que falten desde el inicio del año actual hasta el final del siguiente
+     * y recarga el mapa en memoria
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${api.calendario.cron:0 0 3 * * *}")
+    public void prepararCalendario() {
+        LocalDate desde = LocalDate.now().withDayOfYear(1);
+        LocalDate hasta = desde.plusYears(2).minusDays(1);
 
-    public Fecha findByFecha(LocalDate fecha) {
+        fechaRepository.insertarSiFaltan(desde.datesUntil(hasta.plusDays(1)).toList());
+        List<DiaCalendarioDto> dias = fechaRepository.findCalendario(desde, hasta);
 
-    return fechaRepository.findByFecha(fecha).orElse(null);
+        Map<LocalDate, DiaCalendarioDto> nuevo = new HashMap<>();
+        dias.forEach(dia -> nuevo.put(dia.fecha(), dia));
+        calendario = Map.copyOf(nuevo);
+        log.info("Calendario cargado: {} días entre {} y {}", nuevo.size(), desde, hasta);
+    }
 
+    /**
+     * Devuelve la fila de fecha del día, creándola si no existe
+     */
+    public DiaCalendarioDto resolver(LocalDate fecha) {
+        DiaCalendarioDto dia = calendario.get(fecha);
+        if (dia != null) {
+            return dia;
+        }
+        // Fuera del calendario precargado: alta idempotente y relectura
+        fechaRepository.insertarSiFaltan(List.of(fecha));
+        return fechaRepository.findCalendario(fecha, fecha).get(0);
     }
 }
@@ -11,6 +11,8 @@ import com.foroescolar.model.Profesor;
 import com.foroescolar.repository.GradoRepository;
 import com.foroescolar.repository.ProfesorRepository;
 import com.foroescolar.services.GradoService;
+import com.foroescolar.services.events.AccessRelationsChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -23,17 +25,21 @@ public class GradoServiceImp implements GradoService {
     private final GradoRepository gradoRepository;
     private final GradoMapper gradoMapper;
     private final ProfesorRepository profesorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public GradoServiceImp(GradoRepository gradoRepository, GradoMapper gradoMapper, ProfesorRepository profesorRepository) {
+    public GradoServiceImp(GradoRepository gradoRepository, GradoMapper gradoMapper, ProfesorRepository profesorRepository,
+                           ApplicationEventPublisher eventPublisher) {
         this.gradoRepository = gradoRepository;
         this.gradoMapper = gradoMapper;
         this.profesorRepository = profesorRepository;
+        this.eventPublisher = eventPublisher;
     }
     @Override
     public GradoDto save(GradoDto gradoDto) {
 
         Grado grado= gradoMapper.toEntity(gradoDto);
         gradoRepository.save(grado);
+        eventPublisher.publishEvent(new AccessRelationsChangedEvent("grado.save"));
         return gradoMapper.toResponseDto(grado);
    }
 
@@ -50,7 +56,9 @@ public class GradoServiceImp implements GradoService {
                .materia(gradoDto.getMateria())
                .profesor(profesor)
                .build();
-       return gradoMapper.toResponseDto(gradoRepository.save(grado));
+       Grado saved = gradoRepository.save(grado);
+       eventPublisher.publishEvent(new AccessRelationsChangedEvent("grado.create"));
+       return gradoMapper.toResponseDto(saved);
    }
 
     @Override
@@ -144,6 +152,7 @@ public class GradoServiceImp implements GradoService {
 
         // Guardar y retornar
         Grado updatedGrado = gradoRepository.save(existingGrado);
+        eventPublisher.publishEvent(new AccessRelationsChangedEvent("grado.update"));
         return gradoMapper.toResponseDto(updatedGrado);
     }
 
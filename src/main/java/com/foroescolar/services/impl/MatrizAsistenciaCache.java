@@ -0,0 +1,93 @@
+package com.foroescolar.services.impl;
+
+import com.foroescolar.config.redis.ClusterEventStream;
+import com.foroescolar.dtos.asistencia.MatrizAsistenciaDTO;
+import com.foroescolar.repository.AsistenciaRepository;
+import com.foroescolar.services.events.AccessRelationsChangedEvent;
+import com.foroescolar.services.events.AsistenciasModificadasEvent;
+import com.foroescolar.utils.asistencia.MatrizAsistencia;
+import com.foroescolar.utils.cache.LoadTimeExpiry;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Matrices de asistencia por grado, cargadas perezosamente con una proyección de las tablas
+ * asistencia/fecha y mantenidas en sitio al confirmarse cada registro o cambio de asistencia.
+ * Las consultas por rango de fechas, por estudiante o por día no tocan la base de datos.
+ * Los cambios confirmados en otros nodos llegan por {@link ClusterEventStream} e invalidan el grado;
+ * además, cada matriz se recarga como máximo {@code ttl} después de cargarse.
+ */
+@Slf4j
+@Component
+public class MatrizAsistenciaCache {
+
+    private static final String GRADO_ID = "gradoId";
+
+    private final AsistenciaRepository asistenciaRepository;
+    private final ClusterEventStream clusterEventStream;
+    private final LoadingCache<Long, MatrizAsistencia> matrices;
+
+    public MatrizAsistenciaCache(AsistenciaRepository asistenciaRepository, MeterRegistry meterRegistry,
+                                 ClusterEventStream clusterEventStream,
+                                 @Value("${api.asistencia.matriz.max-size:500}") long maxSize,
+                                 @Value("${api.asistencia.matriz.ttl:12h}") Duration ttl) {
+        this.asistenciaRepository = asistenciaRepository;
+        this.clusterEventStream = clusterEventStream;
+        this.matrices = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new LoadTimeExpiry<Long, MatrizAsistencia>(ttl))
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, matrices, "asistencia.matriz.cache");
+        Gauge.builder("asistencia.matriz.memory", matrices,
+                        cache -> cache.asMap().values().stream().mapToLong(MatrizAsistencia::memoryBytes).sum())
+                .description("Memoria ocupada por las matrices de asistencia en bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void suscribirCambiosRemotos() {
+        clusterEventStream.suscribir(ClusterEventStream.CANAL_MATRIZ_ASISTENCIA,
+                campos -> matrices.invalidate(Long.valueOf(campos.get(GRADO_ID))));
+        clusterEventStream.suscribir(ClusterEventStream.CANAL_ACCESO, campos -> matrices.invalidateAll());
+    }
+
+    public MatrizAsistenciaDTO consultar(Long gradoId, LocalDate desde, LocalDate hasta, Long estudianteId) {
+        return matrices.get(gradoId).consultar(gradoId, desde, hasta, estudianteId);
+    }
+
+    /**
+     * Aplica los cambios confirmados a la matriz ya cargada. Si una carga está en curso, compute
+     * espera a que termine; reaplicar un estado ya leído de la base es idempotente.
+     * El resto de nodos descarta su copia del grado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAsistenciasModificadas(AsistenciasModificadasEvent event) {
+        matrices.asMap().computeIfPresent(event.gradoId(),
+                (gradoId, matriz) -> matriz.aplicar(event.fecha(), event.estados()) ? matriz : null);
+        clusterEventStream.publicar(ClusterEventStream.CANAL_MATRIZ_ASISTENCIA,
+                Map.of(GRADO_ID, event.gradoId().toString()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessRelationsChanged(AccessRelationsChangedEvent event) {
+        matrices.invalidateAll();
+        log.debug("Matrices de asistencia invalidadas por: {}", event.origen());
+    }
+
+    private MatrizAsistencia load(Long gradoId) {
+        return MatrizAsistencia.of(asistenciaRepository.findCeldasByGradoId(gradoId));
+    }
+}
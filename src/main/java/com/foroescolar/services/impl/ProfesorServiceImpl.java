@@ -13,8 +13,10 @@ import com.foroescolar.model.Profesor;
 import com.foroescolar.model.UpdatedEntities;
 import com.foroescolar.repository.ProfesorRepository;
 import com.foroescolar.services.ProfesorService;
+import com.foroescolar.services.events.AccessRelationsChangedEvent;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -29,12 +31,15 @@ public class ProfesorServiceImpl extends GenericServiceImpl<Profesor, Long, Prof
     private final ProfesorRepository profesorRepository;
     private final BCryptPasswordEncoder passwordEncoder;
     private final ProfesorMapper profesorMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ProfesorServiceImpl(ProfesorRepository profesorRepository, PasswordEncoder passwordEncoder, ProfesorMapper profesorMapper) {
+    public ProfesorServiceImpl(ProfesorRepository profesorRepository, PasswordEncoder passwordEncoder, ProfesorMapper profesorMapper,
+                               ApplicationEventPublisher eventPublisher) {
         this.profesorRepository = profesorRepository;
         this.passwordEncoder = (BCryptPasswordEncoder) passwordEncoder;
         this.profesorMapper = profesorMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -49,6 +54,7 @@ public class ProfesorServiceImpl extends GenericServiceImpl<Profesor, Long, Prof
             newProfesor.setRol(RoleEnum.valueOf("ROLE_PROFESOR"));
             newProfesor.setActivo(true);
             newProfesor = profesorRepository.save(newProfesor);
+            eventPublisher.publishEvent(new AccessRelationsChangedEvent("profesor.save"));
             return profesorMapper.toResponseDTO(newProfesor);
         }catch (ApplicationException e){
             throw new ApplicationException("Error al guardar el usuario: ", e.getMessage() , e.getHttpStatus());
@@ -82,7 +88,9 @@ public class ProfesorServiceImpl extends GenericServiceImpl<Profesor, Long, Prof
                 validarPassword(profesorRequestDTO.contrasena());
                 updateProfesor.setContrasena(passwordEncoder.encode(profesorRequestDTO.contrasena()));
             }
-            return profesorMapper.toResponseDTO(profesorRepository.save(updateProfesor));
+            Profesor savedProfesor = profesorRepository.save(updateProfesor);
+            eventPublisher.publishEvent(new AccessRelationsChangedEvent("profesor.update"));
+            return profesorMapper.toResponseDTO(savedProfesor);
         } else {
             throw new EntityNotFoundException("La entidad con ese ID no fue encontrado" + profesorRequestDTO.id());
         }
@@ -101,6 +109,7 @@ public class ProfesorServiceImpl extends GenericServiceImpl<Profesor, Long, Prof
     public void deleteById(Long id) {
         Profesor profesor = profesorRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Profesor no encontrado"));
         profesorRepository.delete(profesor);
+        eventPublisher.publishEvent(new AccessRelationsChangedEvent("profesor.delete"));
     }
 
 
@@ -7,34 +7,54 @@ import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 
+import com.foroescolar.enums.RoleEnum;
 import com.foroescolar.exceptions.security.ErrorCode;
 import com.foroescolar.exceptions.security.filters.token.*;
 import com.foroescolar.model.User;
 import com.foroescolar.services.TokenService;
+import com.foroescolar.utils.token.TokenBloomFilter;
+import com.foroescolar.utils.token.TokenClaims;
+import com.foroescolar.utils.token.TokenFingerprint;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
 
 import io.lettuce.core.RedisConnectionException;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.Subscription;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
@@ -48,6 +68,7 @@ public class TokenServiceImpl implements TokenService {
 
     private final RedisTemplate<String, String> redisTemplate;
     private final MeterRegistry meterRegistry;
+    private final StreamMessageListenerContainer<String, MapRecord<String, String, String>> revocationContainer;
 
     // Métricas
     private Timer tokenGenerationTimer;
@@ -56,46 +77,102 @@ public class TokenServiceImpl implements TokenService {
     private Counter tokenValidationCounter;
     private Counter tokenValidationFailedCounter;
     private Counter tokenBlacklistCounter;
-    private final AtomicLong cacheHitRatio = new AtomicLong(0);
-    private final AtomicLong cacheMissRatio = new AtomicLong(0);
+    private Counter bloomPositiveCounter;
+    private Counter bloomFalsePositiveCounter;
+    private Counter bloomUnverifiedNegativeCounter;
 
     // Pool de verificadores para mejor concurrencia
     private JWTVerifier[] verifierPool;
 
-    // Cache para tokens decodificados (evitar decodificación repetida)
-    private final Map<String, DecodedJWT> tokenCache = new ConcurrentHashMap<>();
+    // Cache para tokens decodificados (evitar decodificación repetida).
+    // Acotada por peso, cada entrada expira en el 'exp' de su JWT y el desalojo es por frecuencia/recencia
+    private final Cache<TokenFingerprint, DecodedJWT> tokenCache;
+
+    // Cache para tokens en lista negra (memoria local): huella -> instante de expiración del token (epoch ms).
+    // La rueda de temporizadores de Caffeine descarta cada entrada cuando el token habría expirado igualmente
+    private final Cache<TokenFingerprint, Long> blacklistCache;
 
-    // Cache para tokens en lista negra (memoria local)
-    private final Set<String> blacklistCache = ConcurrentHashMap.newKeySet();
+    // Filtro probabilístico delante de la lista negra: con el stream al día, un negativo no sale de la JVM
+    private final TokenBloomFilter revocationFilter;
 
-    // Timestamp de última sincronización con Redis
-    private volatile long lastBlacklistSync = 0;
+    // Suscripción al stream de revocaciones (una por nodo)
+    private volatile Subscription revocationSubscription;
+    // Instante (epoch ms) desde el que el filtro contiene todas las revocaciones vigentes
+    private volatile long bloomTrustedFrom = Long.MAX_VALUE;
+    // Último error de lectura del stream (epoch ms)
+    private volatile long lastRevocationFeedError;
 
     private static final String TOKEN_BLACKLIST_PREFIX = "blacklist:";
+    // Duración de la revocación (horas) cuando el token no indica su expiración
     private static final long TOKEN_BLACKLIST_DURATION = 24;
     private static final String FORO_ESCOLAR = "Foro Escolar";
-    private static final long BLACKLIST_SYNC_INTERVAL = 60000; // 1 minuto
-    private static final long CACHE_CLEANUP_INTERVAL = 300000; // 5 minutos
-    private static final int MAX_CACHE_SIZE = 10000;
+    // Stream de Redis con las revocaciones; cada nodo consume solo los cambios
+    private static final String TOKEN_REVOCATION_STREAM = "blacklist-feed";
+    private static final String REVOCATION_FINGERPRINT_FIELD = "fingerprint";
+    private static final String REVOCATION_EXPIRES_AT_FIELD = "exp";
+    // Longitud máxima aproximada del stream y máximo de entradas leídas al arrancar
+    private static final long REVOCATION_FEED_MAX_LENGTH = 50000;
+    // Tras un error de lectura del stream, los negativos del filtro se confirman en Redis durante este margen
+    // (dos veces el pollTimeout del contenedor)
+    private static final long REVOCATION_FEED_ERROR_GRACE_MILLIS = 4000;
+    // Copias del token que retiene cada DecodedJWT (token original, header y payload decodificados)
+    private static final int TOKEN_CACHE_WEIGHT_FACTOR = 3;
+    // Tamaño aproximado de la clave (huella de 128 bits)
+    private static final int TOKEN_FINGERPRINT_WEIGHT = 32;
 
     // Ejecutor para tareas asíncronas
     private final ExecutorService asyncTaskExecutor = Executors.newSingleThreadExecutor();
 
 
-    public TokenServiceImpl(RedisTemplate<String, String> redisTemplate, MeterRegistry meterRegistry) {
+    public TokenServiceImpl(RedisTemplate<String, String> redisTemplate, MeterRegistry meterRegistry,
+                            StreamMessageListenerContainer<String, MapRecord<String, String, String>> revocationContainer,
+                            @Value("${api.jwt.cache.max-weight-bytes:8388608}") long tokenCacheMaxWeight,
+                            @Value("${api.jwt.blacklist.bloom.expected-insertions:100000}") long bloomExpectedInsertions,
+                            @Value("${api.jwt.blacklist.bloom.fpp:0.001}") double bloomFalsePositiveProbability) {
         this.redisTemplate = redisTemplate;
         this.meterRegistry = meterRegistry;
-        initializeMetrics();
+        this.revocationContainer = revocationContainer;
+        this.tokenCache = buildTokenCache(tokenCacheMaxWeight);
+        this.blacklistCache = buildBlacklistCache();
+        // Cada generación del filtro debe cubrir la vida completa de un token revocado
+        this.revocationFilter = new TokenBloomFilter(bloomExpectedInsertions, bloomFalsePositiveProbability,
+                maxRevocationLifetime());
     }
 
     @EventListener(ContextRefreshedEvent.class)
     public void initialize() {
         initializeVerifierPool();
-        syncBlacklistFromRedis();
-        scheduleCacheCleanup();
+        migrateLegacyBlacklistKeys();
+        subscribeToRevocationFeed();
+    }
+
+    private Cache<TokenFingerprint, DecodedJWT> buildTokenCache(long maxWeight) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((TokenFingerprint fingerprint, DecodedJWT jwt) ->
+                        TOKEN_FINGERPRINT_WEIGHT + jwt.getToken().length() * TOKEN_CACHE_WEIGHT_FACTOR)
+                .expireAfter(new JwtExpiry())
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+    }
+
+    private Cache<TokenFingerprint, Long> buildBlacklistCache() {
+        return Caffeine.newBuilder()
+                .expireAfter(new RevocationExpiry())
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
+
+    private Duration maxRevocationLifetime() {
+        Duration tokenLifetime = Duration.between(Instant.now(), generateExpirationDate());
+        Duration fallback = Duration.ofHours(TOKEN_BLACKLIST_DURATION);
+        return tokenLifetime.compareTo(fallback) > 0 ? tokenLifetime : fallback;
     }
 
-    private void initializeMetrics() {
+    // Las métricas se registran con el bean ya construido: los gauges referencian a 'this'
+    @PostConstruct
+    public void initializeMetrics() {
         this.tokenGenerationTimer = Timer.builder("security.token.generation")
                 .description("Tiempo de generación de tokens")
                 .register(meterRegistry);
@@ -120,13 +197,50 @@ public class TokenServiceImpl implements TokenService {
                 .description("Número de tokens añadidos a la lista negra")
                 .register(meterRegistry);
 
-        // Gauge para el ratio de aciertos de caché
-        meterRegistry.gauge("security.token.cache.hit.ratio", cacheHitRatio);
-        meterRegistry.gauge("security.token.cache.miss.ratio", cacheMissRatio);
+        // Aciertos, fallos y desalojos de la caché (cache.gets, cache.evictions, ...)
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenCache, "security.token.cache");
+
+        // Ratios reales calculados sobre las estadísticas de la caché
+        Gauge.builder("security.token.cache.hit.ratio", tokenCache, cache -> cache.stats().hitRate())
+                .description("Ratio de aciertos de la caché de tokens decodificados")
+                .register(meterRegistry);
+        Gauge.builder("security.token.cache.miss.ratio", tokenCache, cache -> cache.stats().missRate())
+                .description("Ratio de fallos de la caché de tokens decodificados")
+                .register(meterRegistry);
 
         // Gauge para tamaño de la caché
-        meterRegistry.gaugeMapSize("security.token.cache.size", Tags.empty(), tokenCache);
-        meterRegistry.gaugeCollectionSize("security.token.blacklist.size", Tags.empty(), blacklistCache);
+        Gauge.builder("security.token.cache.size", tokenCache, Cache::estimatedSize)
+                .description("Número estimado de tokens decodificados en caché")
+                .register(meterRegistry);
+        Gauge.builder("security.token.blacklist.size", blacklistCache, Cache::estimatedSize)
+                .description("Número de tokens revocados aún vigentes en la caché local")
+                .register(meterRegistry);
+
+        // Métricas del filtro de Bloom de la lista negra
+        this.bloomPositiveCounter = Counter.builder("security.token.blacklist.bloom.positive")
+                .description("Tokens que el filtro de Bloom marcó como posiblemente revocados")
+                .register(meterRegistry);
+        this.bloomFalsePositiveCounter = Counter.builder("security.token.blacklist.bloom.false.positive")
+                .description("Posibles positivos del filtro de Bloom que no estaban revocados")
+                .register(meterRegistry);
+        Gauge.builder("security.token.blacklist.bloom.false.positive.ratio", this, service ->
+                        service.bloomPositiveCounter.count() == 0 ? 0 :
+                                service.bloomFalsePositiveCounter.count() / service.bloomPositiveCounter.count())
+                .description("Ratio observado de falsos positivos del filtro de Bloom")
+                .register(meterRegistry);
+        this.bloomUnverifiedNegativeCounter = Counter.builder("security.token.blacklist.bloom.unverified")
+                .description("Negativos del filtro de Bloom confirmados en Redis porque el stream de revocaciones no estaba al día")
+                .register(meterRegistry);
+        Gauge.builder("security.token.blacklist.feed.live", this, service -> service.isRevocationFeedLive() ? 1 : 0)
+                .description("1 si el stream de revocaciones está al día y los negativos del filtro son fiables")
+                .register(meterRegistry);
+        Gauge.builder("security.token.blacklist.bloom.fpp", revocationFilter, TokenBloomFilter::expectedFalsePositiveProbability)
+                .description("Probabilidad de falso positivo esperada según el llenado del filtro")
+                .register(meterRegistry);
+        Gauge.builder("security.token.blacklist.bloom.memory", revocationFilter, TokenBloomFilter::memoryBytes)
+                .description("Memoria ocupada por el filtro de Bloom de la lista negra")
+                .baseUnit("bytes")
+                .register(meterRegistry);
     }
 
     private void initializeVerifierPool() {
@@ -142,47 +256,6 @@ public class TokenServiceImpl implements TokenService {
     }
 
 
-    private void scheduleCacheCleanup() {
-        asyncTaskExecutor.submit(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    Thread.sleep(CACHE_CLEANUP_INTERVAL);
-                    cleanupCaches();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                } catch (Exception e) {
-                    log.error("Error en la limpieza programada de caché", e);
-                }
-            }
-        });
-    }
-
-    private void cleanupCaches() {
-        if (tokenCache.size() > MAX_CACHE_SIZE) {
-            log.debug("Limpiando caché de tokens, tamaño actual: {}", tokenCache.size());
-
-            // Eliminar tokens expirados
-            long now = System.currentTimeMillis();
-            tokenCache.entrySet().removeIf(entry -> {
-                try {
-                    Date expiresAt = entry.getValue().getExpiresAt();
-                    return expiresAt != null && expiresAt.getTime() < now;
-                } catch (Exception e) {
-                    return true; // Si hay error, eliminar entrada
-                }
-            });
-
-            // Si aún es demasiado grande, eliminar el 25% más antiguo
-            if (tokenCache.size() > MAX_CACHE_SIZE) {
-                int toRemove = tokenCache.size() / 4;
-                tokenCache.keySet().stream()
-                        .limit(toRemove)
-                        .forEach(tokenCache::remove);
-            }
-        }
-    }
-
     @Override
     public String generateToken(User user) {
         return tokenGenerationTimer.record(() -> {
@@ -210,48 +283,71 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public String getUsernameFromToken(String token) {
-        return tokenValidationTimer.record(() -> {
-            tokenValidationCounter.increment();
-            validateTokenNotEmpty(token);
+        return tokenValidationTimer.record(() -> extractSubject(decodeVerifiedToken(token)));
+    }
 
+    @Override
+    public TokenClaims getClaimsFromToken(String token) {
+        return tokenValidationTimer.record(() -> {
+            DecodedJWT jwt = decodeVerifiedToken(token);
             try {
-                // 1. Primero validar estructura (sin verificar firma)
-                DecodedJWT preDecoded = preValidateTokenStructure(token);
-
-                // 2. Verificar si ya está en lista negra (evitar verificación innecesaria)
-                if (isTokenBlacklisted(token)) {
-                    tokenValidationFailedCounter.increment();
-                    throw new TokenInvalidatedException("Token está en lista negra");
-                }
+                return new TokenClaims(
+                        extractSubject(jwt),
+                        jwt.getClaim("id").asLong(),
+                        RoleEnum.valueOf(jwt.getClaim("role").asString()),
+                        jwt.getClaim("nombre").asString());
+            } catch (TokenException e) {
+                throw e;
+            } catch (Exception e) {
+                tokenValidationFailedCounter.increment();
+                throw new TokenException("Token sin claims de usuario válidos", ErrorCode.TOKEN_INVALID);
+            }
+        });
+    }
 
-                // 3. Verificar expiración (antes de verificar firma completa)
-                if (isTokenExpired(preDecoded)) {
-                    tokenValidationFailedCounter.increment();
-                    throw new com.foroescolar.exceptions.security.filters.token.TokenExpiredException(
-                            "El token ha expirado", preDecoded.getExpiresAt());
-                }
+    /**
+     * Valida el token completo (lista negra, expiración y firma) y devuelve el JWT decodificado
+     */
+    private DecodedJWT decodeVerifiedToken(String token) {
+        tokenValidationCounter.increment();
+        validateTokenNotEmpty(token);
+        TokenFingerprint fingerprint = fingerprint(token);
 
-                // 4. Verificar firma completa
-                DecodedJWT decodedJWT = verifyToken(token.trim());
+        try {
+            // 1. Primero validar estructura (sin verificar firma)
+            DecodedJWT preDecoded = preValidateTokenStructure(token);
 
-                // 5. Almacenar en caché para futuras validaciones
-                tokenCache.put(token, decodedJWT);
+            // 2. Verificar si ya está en lista negra (evitar verificación innecesaria)
+            if (isTokenInBlacklist(fingerprint)) {
+                tokenValidationFailedCounter.increment();
+                throw new TokenInvalidatedException("Token está en lista negra");
+            }
 
-                // 6. Extraer subject
-                return extractSubject(decodedJWT);
-            } catch (com.foroescolar.exceptions.security.filters.token.TokenExpiredException e) {
-                throw e;
-            } catch (JWTVerificationException e) {
+            // 3. Verificar expiración (antes de verificar firma completa)
+            if (isTokenExpired(preDecoded)) {
                 tokenValidationFailedCounter.increment();
-                log.debug("Error al verificar token: {}", e.getMessage());
                 throw new com.foroescolar.exceptions.security.filters.token.TokenExpiredException(
-                        "El token ha expirado", getExpirationDateFromToken(token));
-            } catch (Exception e) {
-                tokenValidationFailedCounter.increment();
-                log.debug("Error inesperado al procesar token: {}", e.getMessage());
-                throw new TokenException("Error al procesar el token", ErrorCode.TOKEN_INVALID);
+                        "El token ha expirado", preDecoded.getExpiresAt());
             }
-        });
+
+            // 4. Verificar firma completa
+            DecodedJWT decodedJWT = verifyToken(token.trim(), fingerprint);
+
+            // 5. Almacenar en caché para futuras validaciones (expira junto con el token)
+            tokenCache.put(fingerprint, decodedJWT);
+            return decodedJWT;
+        } catch (com.foroescolar.exceptions.security.filters.token.TokenExpiredException e) {
+            throw e;
+        } catch (JWTVerificationException e) {
+            tokenValidationFailedCounter.increment();
+            log.debug("Error al verificar token: {}", e.getMessage());
+            throw new com.foroescolar.exceptions.security.filters.token.TokenExpiredException(
+                    "El token ha expirado", getExpirationDateFromToken(token));
+        } catch (Exception e) {
+            tokenValidationFailedCounter.increment();
+            log.debug("Error inesperado al procesar token: {}", e.getMessage());
+            throw new TokenException("Error al procesar el token", ErrorCode.TOKEN_INVALID);
+        }
     }
 
     private DecodedJWT preValidateTokenStructure(String token) {
@@ -274,18 +370,20 @@ public class TokenServiceImpl implements TokenService {
         }
     }
 
-    private DecodedJWT verifyToken(String token) {
-        // Verificar si está en caché primero
-        DecodedJWT cachedJwt = tokenCache.get(token);
-        if (cachedJwt != null) {
-            cacheHitRatio.incrementAndGet();
+    private TokenFingerprint fingerprint(String token) {
+        return TokenFingerprint.of(token.trim());
+    }
+
+    private DecodedJWT verifyToken(String token, TokenFingerprint fingerprint) {
+        // Verificar si está en caché primero: solo contiene tokens con firma ya verificada,
+        // y se compara el token completo además de la huella
+        DecodedJWT cachedJwt = tokenCache.getIfPresent(fingerprint);
+        if (cachedJwt != null && token.equals(cachedJwt.getToken())) {
             return cachedJwt;
         }
 
-        cacheMissRatio.incrementAndGet();
-
         // Usar un verificador del pool (round-robin simple)
-        int verifierIndex = Math.abs(token.hashCode() % verifierPoolSize);
+        int verifierIndex = fingerprint.bucket(verifierPoolSize);
         return verifierPool[verifierIndex].verify(token);
     }
 
@@ -300,21 +398,20 @@ public class TokenServiceImpl implements TokenService {
     @Override
     public boolean validateToken(String token, UserDetails userDetails) {
         tokenValidationCounter.increment();
+        TokenFingerprint fingerprint = fingerprint(token);
 
-        if (isTokenBlacklisted(token)) {
+        if (isTokenInBlacklist(fingerprint)) {
             return false;
         }
 
         try {
             // Verificar primero si está en caché
-            DecodedJWT cachedJwt = tokenCache.get(token);
-
-            if (cachedJwt != null) {
-                cacheHitRatio.incrementAndGet();
+            DecodedJWT cachedJwt = tokenCache.getIfPresent(fingerprint);
 
+            if (cachedJwt != null && token.trim().equals(cachedJwt.getToken())) {
                 // Verificar expiración desde caché
                 if (isTokenExpired(cachedJwt)) {
-                    tokenCache.remove(token); // Eliminar de caché si expirado
+                    tokenCache.invalidate(fingerprint); // Eliminar de caché si expirado
                     return false;
                 }
 
@@ -323,8 +420,6 @@ public class TokenServiceImpl implements TokenService {
                 return username != null && username.equals(userDetails.getUsername());
             }
 
-            cacheMissRatio.incrementAndGet();
-
             // Validación completa
             final String username = getUsernameFromToken(token);
             return username.equals(userDetails.getUsername());
@@ -341,16 +436,24 @@ public class TokenServiceImpl implements TokenService {
 
         try {
             // Solo hacer validación básica de estructura para tokens a invalidar
-            preValidateTokenStructure(token);
-
-            // Añadir a caché local inmediatamente
-            blacklistCache.add(token);
+            DecodedJWT jwt = preValidateTokenStructure(token);
+            TokenFingerprint fingerprint = fingerprint(token);
+            long expiresAt = revocationExpiresAt(jwt);
 
             // Remover de caché de tokens válidos
-            tokenCache.remove(token);
+            tokenCache.invalidate(fingerprint);
+
+            // Un token ya expirado no necesita lista negra: la validación lo rechaza igualmente
+            if (expiresAt <= System.currentTimeMillis()) {
+                log.info("Token ya expirado, no se añade a la lista negra");
+                return;
+            }
+
+            // Añadir a caché local inmediatamente
+            addToLocalBlacklist(fingerprint, expiresAt);
 
             // Persistir en Redis asíncronamente
-            asyncTaskExecutor.submit(() -> addTokenToBlacklist(token));
+            asyncTaskExecutor.submit(() -> addTokenToBlacklist(fingerprint, expiresAt));
 
             tokenBlacklistCounter.increment();
             log.info("Token invalidado exitosamente");
@@ -362,14 +465,27 @@ public class TokenServiceImpl implements TokenService {
         }
     }
 
-    private void addTokenToBlacklist(String token) {
+    private long revocationExpiresAt(DecodedJWT jwt) {
+        Date expiresAt = jwt.getExpiresAt();
+        return expiresAt != null
+                ? expiresAt.getTime()
+                : System.currentTimeMillis() + TimeUnit.HOURS.toMillis(TOKEN_BLACKLIST_DURATION);
+    }
+
+    private void addTokenToBlacklist(TokenFingerprint fingerprint, long expiresAt) {
+        long remainingMillis = expiresAt - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            return;
+        }
         try {
+            // La entrada de Redis vive exactamente lo que le queda al token
             redisTemplate.opsForValue().set(
-                    TOKEN_BLACKLIST_PREFIX + token,
+                    TOKEN_BLACKLIST_PREFIX + fingerprint,
                     "true",
-                    TOKEN_BLACKLIST_DURATION,
-                    TimeUnit.HOURS
+                    remainingMillis,
+                    TimeUnit.MILLISECONDS
             );
+            publishRevocation(fingerprint, expiresAt);
         } catch (RedisConnectionException e) {
             log.error("Error de conexión con Redis al invalidar token: {}", e.getMessage());
         } catch (Exception e) {
@@ -379,60 +495,180 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public boolean isTokenInBlacklist(String token) {
-        // Verificar primero en caché local
-        if (blacklistCache.contains(token)) {
-            return true;
-        }
+        return isTokenInBlacklist(fingerprint(token));
+    }
 
-        // Verificar si es hora de sincronizar con Redis
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastBlacklistSync > BLACKLIST_SYNC_INTERVAL) {
-            syncBlacklistFromRedis();
-        }
+    @Override
+    public boolean isTokenInBlacklist(TokenFingerprint fingerprint) {
+        boolean possiblyRevoked = revocationFilter.mightContain(fingerprint);
+        if (!possiblyRevoked) {
+            // Negativo definitivo solo si el filtro recibió todas las revocaciones: con el stream
+            // caído o sin la carga inicial completa, el negativo se confirma en Redis
+            if (isRevocationFeedLive()) {
+                return false;
+            }
+            bloomUnverifiedNegativeCounter.increment();
+        } else {
+            bloomPositiveCounter.increment();
 
-        // Verificar nuevamente después de posible sincronización
-        if (blacklistCache.contains(token)) {
-            return true;
+            // Verificar en caché local (alimentada por el stream de revocaciones)
+            if (blacklistCache.getIfPresent(fingerprint) != null) {
+                return true;
+            }
         }
 
-        // Si no está en caché, verificar en Redis directamente
+        // Verificar en Redis directamente.
+        // El TTL restante (-2 si la clave no existe) permite cachear la entrada hasta su expiración
         try {
-            Boolean result = redisTemplate.hasKey(TOKEN_BLACKLIST_PREFIX + token);
-            if (Boolean.TRUE.equals(result)) {
+            Long remainingMillis = redisTemplate.getExpire(TOKEN_BLACKLIST_PREFIX + fingerprint, TimeUnit.MILLISECONDS);
+            if (remainingMillis != null && remainingMillis != -2) {
                 // Añadir al caché local si se encontró en Redis
-                blacklistCache.add(token);
+                long ttl = remainingMillis > 0 ? remainingMillis : TimeUnit.HOURS.toMillis(TOKEN_BLACKLIST_DURATION);
+                addToLocalBlacklist(fingerprint, System.currentTimeMillis() + ttl);
                 return true;
             }
+            if (possiblyRevoked) {
+                bloomFalsePositiveCounter.increment();
+            }
             return false;
         } catch (Exception e) {
             log.warn("Error al verificar token en Redis, usando caché local: {}", e.getMessage());
-            return blacklistCache.contains(token);
+            return blacklistCache.getIfPresent(fingerprint) != null;
+        }
+    }
+
+    /**
+     * El stream está al día si la suscripción está activa, la carga inicial cubrió todas las revocaciones
+     * vigentes y no ha habido errores de lectura recientes
+     */
+    private boolean isRevocationFeedLive() {
+        Subscription subscription = revocationSubscription;
+        long now = System.currentTimeMillis();
+        return subscription != null
+                && subscription.isActive()
+                && now >= bloomTrustedFrom
+                && now - lastRevocationFeedError > REVOCATION_FEED_ERROR_GRACE_MILLIS;
+    }
+
+    private void publishRevocation(TokenFingerprint fingerprint, long expiresAt) {
+        redisTemplate.opsForStream().add(StreamRecords.string(
+                        Map.of(REVOCATION_FINGERPRINT_FIELD, fingerprint.toString(),
+                                REVOCATION_EXPIRES_AT_FIELD, Long.toString(expiresAt)))
+                .withStreamKey(TOKEN_REVOCATION_STREAM));
+        redisTemplate.opsForStream().trim(TOKEN_REVOCATION_STREAM, REVOCATION_FEED_MAX_LENGTH, true);
+    }
+
+    /**
+     * Migra las claves anteriores a las huellas ('blacklist:<token>') al formato 'blacklist:<huella>'
+     * conservando su TTL, y publica cada una en el stream para que el resto de nodos la reciba.
+     * Es idempotente: varios nodos pueden ejecutarla a la vez durante un despliegue
+     */
+    private void migrateLegacyBlacklistKeys() {
+        int migrated = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(TOKEN_BLACKLIST_PREFIX + "*").count(1000).build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                String suffix = key.substring(TOKEN_BLACKLIST_PREFIX.length());
+                if (!TokenFingerprint.isFingerprint(suffix) && migrateLegacyBlacklistKey(key, suffix)) {
+                    migrated++;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error al migrar las claves antiguas de la lista negra", e);
+        }
+        if (migrated > 0) {
+            log.info("Migradas {} claves de la lista negra al formato por huella", migrated);
         }
     }
 
-    private void syncBlacklistFromRedis() {
+    private boolean migrateLegacyBlacklistKey(String legacyKey, String token) {
+        Long remainingMillis = redisTemplate.getExpire(legacyKey, TimeUnit.MILLISECONDS);
+        if (remainingMillis == null || remainingMillis == -2) {
+            return false; // Expiró o la migró otro nodo
+        }
+        // Las claves antiguas sin TTL conservan la duración fija anterior
+        long ttl = remainingMillis > 0 ? remainingMillis : TimeUnit.HOURS.toMillis(TOKEN_BLACKLIST_DURATION);
+        TokenFingerprint fingerprint = fingerprint(token);
+        long expiresAt = System.currentTimeMillis() + ttl;
+
+        redisTemplate.opsForValue().set(TOKEN_BLACKLIST_PREFIX + fingerprint, "true", ttl, TimeUnit.MILLISECONDS);
+        publishRevocation(fingerprint, expiresAt);
+        redisTemplate.delete(legacyKey);
+        return true;
+    }
+
+    /**
+     * Carga las últimas revocaciones del stream y se suscribe a partir de la más reciente,
+     * de modo que ninguna revocación publicada durante el arranque se pierda
+     */
+    private synchronized void subscribeToRevocationFeed() {
+        if (revocationSubscription != null) {
+            return;
+        }
+
+        ReadOffset offset = ReadOffset.from("0-0");
+        // Si la carga inicial falla o se trunca, el filtro solo es completo cuando expiran
+        // todas las revocaciones que pudieron quedar fuera
+        long trustedFrom = System.currentTimeMillis() + maxRevocationLifetime().toMillis();
         try {
-            Set<String> redisKeys = redisTemplate.keys(TOKEN_BLACKLIST_PREFIX + "*");
-            if (!redisKeys.isEmpty()) {
-                redisKeys.forEach(key -> {
-                    String token = key.replace(TOKEN_BLACKLIST_PREFIX, "");
-                    blacklistCache.add(token);
-                });
+            List<MapRecord<String, Object, Object>> recent = redisTemplate.opsForStream().reverseRange(
+                    TOKEN_REVOCATION_STREAM, Range.unbounded(), Limit.limit().count((int) REVOCATION_FEED_MAX_LENGTH));
+            if (recent != null && !recent.isEmpty()) {
+                recent.forEach(entry -> applyRevocation(entry.getValue().get(REVOCATION_FINGERPRINT_FIELD),
+                        entry.getValue().get(REVOCATION_EXPIRES_AT_FIELD)));
+                offset = ReadOffset.from(recent.get(0).getId());
+            }
+            if (recent == null || recent.size() < REVOCATION_FEED_MAX_LENGTH) {
+                trustedFrom = System.currentTimeMillis();
+            } else {
+                log.warn("El stream de revocaciones alcanzó su longitud máxima; los negativos del filtro se confirmarán en Redis");
             }
-            lastBlacklistSync = System.currentTimeMillis();
-            log.debug("Lista negra sincronizada desde Redis, {} tokens en caché", blacklistCache.size());
+            log.info("Lista negra inicializada desde el stream de revocaciones, {} tokens en caché", blacklistCache.estimatedSize());
         } catch (Exception e) {
-            log.error("Error al sincronizar lista negra desde Redis", e);
+            log.error("Error al leer el stream de revocaciones desde Redis", e);
         }
+
+        revocationSubscription = revocationContainer.register(
+                StreamMessageListenerContainer.StreamReadRequest.builder(StreamOffset.create(TOKEN_REVOCATION_STREAM, offset))
+                        .cancelOnError(e -> false)
+                        .errorHandler(this::onRevocationFeedError)
+                        .build(),
+                message -> applyRevocation(message.getValue().get(REVOCATION_FINGERPRINT_FIELD),
+                        message.getValue().get(REVOCATION_EXPIRES_AT_FIELD)));
+        bloomTrustedFrom = trustedFrom;
     }
 
-    @Override
-    public Set<String> getAllBlacklistedTokens() {
-        // Sincronizar con Redis primero
-        syncBlacklistFromRedis();
+    private void onRevocationFeedError(Throwable e) {
+        lastRevocationFeedError = System.currentTimeMillis();
+        log.warn("Error leyendo el stream de revocaciones: {}", e.getMessage());
+    }
+
+    private void applyRevocation(Object fingerprint, Object expiresAt) {
+        if (fingerprint == null) {
+            return;
+        }
+        TokenFingerprint revoked = TokenFingerprint.fromString(fingerprint.toString());
+        tokenCache.invalidate(revoked);
+
+        // Entradas publicadas sin 'exp' conservan la duración fija anterior
+        long revokedUntil = expiresAt != null
+                ? Long.parseLong(expiresAt.toString())
+                : System.currentTimeMillis() + TimeUnit.HOURS.toMillis(TOKEN_BLACKLIST_DURATION);
+        if (revokedUntil > System.currentTimeMillis()) {
+            addToLocalBlacklist(revoked, revokedUntil);
+        }
+    }
+
+    private void addToLocalBlacklist(TokenFingerprint fingerprint, long expiresAt) {
+        revocationFilter.put(fingerprint);
+        blacklistCache.put(fingerprint, expiresAt);
+    }
 
-        // Devolver copia de la caché local
-        return new HashSet<>(blacklistCache);
+    @Override
+    public Set<TokenFingerprint> getAllBlacklistedTokens() {
+        // La caché local se mantiene al día con el stream de revocaciones y solo contiene tokens vigentes
+        return new HashSet<>(blacklistCache.asMap().keySet());
     }
 
     @Override
@@ -442,7 +678,7 @@ public class TokenServiceImpl implements TokenService {
 
     private Date getExpirationDateFromToken(String token) {
         // Verificar primero en caché
-        DecodedJWT cachedJwt = tokenCache.get(token);
+        DecodedJWT cachedJwt = tokenCache.getIfPresent(fingerprint(token));
 
         if (cachedJwt != null) {
             return cachedJwt.getExpiresAt();
@@ -463,6 +699,54 @@ public class TokenServiceImpl implements TokenService {
                 .toInstant(ZoneOffset.of("-05:00"));
     }
 
+    /**
+     * Expira cada token decodificado en el instante indicado por su claim 'exp'
+     */
+    private static final class JwtExpiry implements Expiry<TokenFingerprint, DecodedJWT> {
+
+        @Override
+        public long expireAfterCreate(TokenFingerprint fingerprint, DecodedJWT jwt, long currentTime) {
+            Date expiresAt = jwt.getExpiresAt();
+            if (expiresAt == null) {
+                return 0; // Sin 'exp' no se cachea
+            }
+            long remainingMillis = expiresAt.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenFingerprint fingerprint, DecodedJWT jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(fingerprint, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenFingerprint fingerprint, DecodedJWT jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Mantiene cada revocación en la caché local hasta el instante de expiración del token revocado
+     */
+    private static final class RevocationExpiry implements Expiry<TokenFingerprint, Long> {
+
+        @Override
+        public long expireAfterCreate(TokenFingerprint fingerprint, Long expiresAt, long currentTime) {
+            long remainingMillis = expiresAt - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenFingerprint fingerprint, Long expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(fingerprint, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenFingerprint fingerprint, Long expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
     // Método para limpieza de recursos en shutdown
     public void shutdown() {
         asyncTaskExecutor.shutdown();
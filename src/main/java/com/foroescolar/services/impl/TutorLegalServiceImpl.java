@@ -15,8 +15,10 @@ import com.foroescolar.repository.EstudianteRepository;
 import com.foroescolar.repository.TutorLegalRepository;
 import com.foroescolar.services.AsistenciaService;
 import com.foroescolar.services.TutorLegalService;
+import com.foroescolar.services.events.AccessRelationsChangedEvent;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -32,18 +34,20 @@ public class TutorLegalServiceImpl implements TutorLegalService {
     private final TutorLegalMapper tutorLegalMapper;
     private final AsistenciaService asistenciaService;
     private final EstudianteRepository estudianteRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final String TUTOR_NOT_FOUND = "Tutor legal no encontrado";
 
     @Autowired
     public TutorLegalServiceImpl(TutorLegalRepository tutorLegalRepository, PasswordEncoder passwordEncoder,
                                  AsistenciaService asistenciaService, TutorLegalMapper tutorLegalMapper,
-                                 EstudianteRepository estudianteRepository) {
+                                 EstudianteRepository estudianteRepository, ApplicationEventPublisher eventPublisher) {
         this.tutorLegalRepository = tutorLegalRepository;
         this.passwordEncoder = (BCryptPasswordEncoder) passwordEncoder;
         this.tutorLegalMapper = tutorLegalMapper;
         this.asistenciaService = asistenciaService;
         this.estudianteRepository = estudianteRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -96,6 +100,7 @@ public class TutorLegalServiceImpl implements TutorLegalService {
                         .orElseThrow(() -> new ForbiddenException("Error al recargar el tutor"));
             }
 
+            eventPublisher.publishEvent(new AccessRelationsChangedEvent("tutor.save"));
             return tutorLegalMapper.toResponseDTO(savedTutor);
 
         } catch (DataIntegrityViolationException e) {
@@ -124,6 +129,7 @@ public class TutorLegalServiceImpl implements TutorLegalService {
         TutorLegal tutorLegal = tutorLegalRepository.findById(aLong)
                 .orElseThrow(() -> new EntityNotFoundException(TUTOR_NOT_FOUND));
         tutorLegalRepository.delete(tutorLegal);
+        eventPublisher.publishEvent(new AccessRelationsChangedEvent("tutor.delete"));
     }
 
 
@@ -173,6 +179,7 @@ public class TutorLegalServiceImpl implements TutorLegalService {
             updateTutorEstudiantes(savedTutor, tutorLegalRequestDTO.estudiante());
         }
 
+        eventPublisher.publishEvent(new AccessRelationsChangedEvent("tutor.update"));
         return tutorLegalMapper.toResponseDTO(savedTutor);
     }
 
@@ -0,0 +1,120 @@
+package com.foroescolar.utils.asistencia;
+
+import com.foroescolar.enums.EstadoAsistencia;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Estado incremental de ausentismo de un estudiante: racha actual de ausencias consecutivas y
+ * un buffer circular de 30 días para la tasa móvil. Registrar una toma de asistencia es O(1);
+ * calcular la tasa recorre como máximo las 30 posiciones del buffer.
+ * Las tomas deben llegar en orden cronológico.
+ */
+public class AusentismoEstudiante {
+
+    public static final int VENTANA_DIAS = 30;
+
+    private static final long VACIO = Long.MIN_VALUE;
+
+    private final long[] dias = new long[VENTANA_DIAS];
+    private final boolean[] ausente = new boolean[VENTANA_DIAS];
+
+    private long ultimoDia = VACIO;
+    private int racha;
+    private LocalDate inicioRacha;
+    private LocalDate enRiesgoDesde;
+
+    /**
+     * Clases registradas y ausencias de una ventana
+     */
+    public record Conteo(int clases, int ausencias) {
+
+        public double tasa() {
+            return clases == 0 ? 0.0 : (double) ausencias / clases;
+        }
+    }
+
+    public AusentismoEstudiante() {
+        Arrays.fill(dias, VACIO);
+    }
+
+    /**
+     * Registra la toma de un día posterior a la última registrada
+     *
+     * @return false si el día no es posterior, en cuyo caso el estado debe reconstruirse
+     */
+    public boolean registrar(LocalDate fecha, EstadoAsistencia estado) {
+        long dia = fecha.toEpochDay();
+        if (dia <= ultimoDia) {
+            return false;
+        }
+        int posicion = Math.floorMod(dia, VENTANA_DIAS);
+        dias[posicion] = dia;
+        ausente[posicion] = estado == EstadoAsistencia.AUSENTE;
+        ultimoDia = dia;
+
+        if (estado == EstadoAsistencia.AUSENTE) {
+            if (racha++ == 0) {
+                inicioRacha = fecha;
+            }
+        } else {
+            racha = 0;
+            inicioRacha = null;
+        }
+        return true;
+    }
+
+    /**
+     * Actualiza el cruce del umbral de la tasa móvil a la fecha de la última toma
+     *
+     * @return true si en esta evaluación el estudiante pasó a superar el umbral
+     */
+    public boolean evaluarUmbral(double umbral, int minimoClases) {
+        if (ultimoDia == VACIO) {
+            return false;
+        }
+        LocalDate referencia = LocalDate.ofEpochDay(ultimoDia);
+        Conteo conteo = contar(referencia);
+        boolean supera = conteo.clases() >= minimoClases && conteo.tasa() > umbral;
+        if (supera && enRiesgoDesde == null) {
+            enRiesgoDesde = referencia;
+            return true;
+        }
+        if (!supera) {
+            enRiesgoDesde = null;
+        }
+        return false;
+    }
+
+    /**
+     * Clases registradas y ausencias en los 30 días que terminan en la fecha indicada
+     */
+    public Conteo contar(LocalDate referencia) {
+        long hasta = referencia.toEpochDay();
+        long desde = hasta - VENTANA_DIAS;
+        int clases = 0;
+        int ausencias = 0;
+        for (int i = 0; i < VENTANA_DIAS; i++) {
+            if (dias[i] > desde && dias[i] <= hasta) {
+                clases++;
+                if (ausente[i]) {
+                    ausencias++;
+                }
+            }
+        }
+        return new Conteo(clases, ausencias);
+    }
+
+    public int getRacha() {
+        return racha;
+    }
+
+    public LocalDate getInicioRacha() {
+        return inicioRacha;
+    }
+
+    public LocalDate getEnRiesgoDesde() {
+        return enRiesgoDesde;
+    }
+}
@@ -0,0 +1,38 @@
+package com.foroescolar.utils.asistencia;
+
+import com.foroescolar.exceptions.ApplicationException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición de paginación por keyset sobre (fecha_id, id): la página siguiente empieza en la
+ * primera asistencia estrictamente posterior. Se expone al cliente como un token opaco.
+ */
+public record CursorAsistencia(long fechaId, long id) {
+
+    public static final CursorAsistencia INICIO = new CursorAsistencia(0L, 0L);
+
+    /**
+     * Decodifica el token recibido; null o vacío equivale a la primera página
+     */
+    public static CursorAsistencia of(String token) {
+        if (token == null || token.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separador = valor.indexOf(':');
+            return new CursorAsistencia(Long.parseLong(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ApplicationException("cursor", "Cursor de paginación inválido", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public String toToken() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((fechaId + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,229 @@
+package com.foroescolar.utils.asistencia;
+
+import com.foroescolar.dtos.asistencia.CeldaAsistenciaDTO;
+import com.foroescolar.dtos.asistencia.MatrizAsistenciaDTO;
+import com.foroescolar.enums.EstadoAsistencia;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Matriz columnar de asistencias de un grado: estudiantes × días de clase.
+ * Cada estudiante guarda tres planos de bits con un bit por día: {@code registrado} indica si hay
+ * asistencia y {@code bajo}/{@code alto} codifican el ordinal de {@link EstadoAsistencia} en 2 bits.
+ * Los conteos por estado en un rango de fechas se resuelven con máscaras y {@link Long#bitCount},
+ * 64 días por operación. Un año lectivo de 40 estudiantes ocupa unos pocos kilobytes.
+ */
+public class MatrizAsistencia {
+
+    private static final EstadoAsistencia[] ESTADOS = EstadoAsistencia.values();
+
+    private LocalDate[] dias;
+    private int numDias;
+    private final Map<Long, Fila> filas = new HashMap<>();
+
+    private MatrizAsistencia(LocalDate[] dias) {
+        this.dias = dias;
+        this.numDias = dias.length;
+    }
+
+    public static MatrizAsistencia of(Collection<CeldaAsistenciaDTO> celdas) {
+        TreeSet<LocalDate> fechas = new TreeSet<>();
+        celdas.forEach(celda -> fechas.add(celda.fecha()));
+        MatrizAsistencia matriz = new MatrizAsistencia(fechas.toArray(LocalDate[]::new));
+
+        Map<LocalDate, Integer> indices = new HashMap<>();
+        for (int i = 0; i < matriz.numDias; i++) {
+            indices.put(matriz.dias[i], i);
+        }
+        for (CeldaAsistenciaDTO celda : celdas) {
+            if (celda.estudianteId() != null && celda.estado() != null) {
+                matriz.fila(celda.estudianteId()).set(indices.get(celda.fecha()), celda.estado());
+            }
+        }
+        return matriz;
+    }
+
+    /**
+     * Aplica cambios de un día; un estado null elimina la celda.
+     *
+     * @return false si la fecha no existe y es anterior al último día cargado, en cuyo caso
+     * la matriz no puede actualizarse en sitio y debe reconstruirse
+     */
+    public synchronized boolean aplicar(LocalDate fecha, Map<Long, EstadoAsistencia> estados) {
+        int dia = Arrays.binarySearch(dias, 0, numDias, fecha);
+        if (dia < 0) {
+            if (-dia - 1 != numDias) {
+                return false;
+            }
+            dia = agregarDia(fecha);
+        }
+        for (Map.Entry<Long, EstadoAsistencia> entry : estados.entrySet()) {
+            if (entry.getValue() != null) {
+                fila(entry.getKey()).set(dia, entry.getValue());
+            } else {
+                Fila fila = filas.get(entry.getKey());
+                if (fila != null) {
+                    fila.clear(dia);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Grilla del rango de fechas indicado (extremos inclusivos y opcionales),
+     * opcionalmente limitada a un estudiante
+     */
+    public synchronized MatrizAsistenciaDTO consultar(Long gradoId, LocalDate desde, LocalDate hasta, Long estudianteId) {
+        int inicio = desde == null ? 0 : indiceDesde(desde);
+        int fin = hasta == null ? numDias : indiceHasta(hasta);
+        List<LocalDate> fechas = inicio < fin ? List.of(Arrays.copyOfRange(dias, inicio, fin)) : List.of();
+
+        List<MatrizAsistenciaDTO.Fila> resultado = new ArrayList<>();
+        if (estudianteId != null) {
+            Fila fila = filas.get(estudianteId);
+            if (fila != null) {
+                resultado.add(fila.toDto(estudianteId, inicio, fin));
+            }
+        } else {
+            filas.forEach((id, fila) -> resultado.add(fila.toDto(id, inicio, fin)));
+            resultado.sort((a, b) -> Long.compare(a.estudianteId(), b.estudianteId()));
+        }
+        return new MatrizAsistenciaDTO(gradoId, fechas, resultado);
+    }
+
+    /**
+     * Memoria aproximada ocupada por los planos de bits, en bytes
+     */
+    public synchronized long memoryBytes() {
+        long bytes = (long) dias.length * Long.BYTES;
+        for (Fila fila : filas.values()) {
+            bytes += 3L * fila.registrado.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private int agregarDia(LocalDate fecha) {
+        if (numDias == dias.length) {
+            dias = Arrays.copyOf(dias, Math.max(16, numDias * 2));
+        }
+        dias[numDias] = fecha;
+        return numDias++;
+    }
+
+    // Primer índice con fecha >= desde
+    private int indiceDesde(LocalDate desde) {
+        int indice = Arrays.binarySearch(dias, 0, numDias, desde);
+        return indice >= 0 ? indice : -indice - 1;
+    }
+
+    // Índice exclusivo tras la última fecha <= hasta
+    private int indiceHasta(LocalDate hasta) {
+        int indice = Arrays.binarySearch(dias, 0, numDias, hasta);
+        return indice >= 0 ? indice + 1 : -indice - 1;
+    }
+
+    private Fila fila(Long estudianteId) {
+        return filas.computeIfAbsent(estudianteId, id -> new Fila(numDias));
+    }
+
+    private static final class Fila {
+        private long[] registrado;
+        private long[] bajo;
+        private long[] alto;
+
+        private Fila(int dias) {
+            int palabras = Math.max(1, (dias + 63) >>> 6);
+            registrado = new long[palabras];
+            bajo = new long[palabras];
+            alto = new long[palabras];
+        }
+
+        private void set(int dia, EstadoAsistencia estado) {
+            asegurarCapacidad(dia);
+            int palabra = dia >>> 6;
+            long bit = 1L << dia;
+            int codigo = estado.ordinal();
+            registrado[palabra] |= bit;
+            bajo[palabra] = (codigo & 1) != 0 ? bajo[palabra] | bit : bajo[palabra] & ~bit;
+            alto[palabra] = (codigo & 2) != 0 ? alto[palabra] | bit : alto[palabra] & ~bit;
+        }
+
+        private void clear(int dia) {
+            int palabra = dia >>> 6;
+            if (palabra < registrado.length) {
+                long bit = ~(1L << dia);
+                registrado[palabra] &= bit;
+                bajo[palabra] &= bit;
+                alto[palabra] &= bit;
+            }
+        }
+
+        private EstadoAsistencia get(int dia) {
+            int palabra = dia >>> 6;
+            if (palabra >= registrado.length || (registrado[palabra] & (1L << dia)) == 0) {
+                return null;
+            }
+            int codigo = (int) ((bajo[palabra] >>> dia) & 1) | (int) (((alto[palabra] >>> dia) & 1) << 1);
+            return ESTADOS[codigo];
+        }
+
+        // Días del rango [inicio, fin) con el estado indicado
+        private int contar(int inicio, int fin, EstadoAsistencia estado) {
+            int total = 0;
+            if (inicio >= fin) {
+                return total;
+            }
+            int primera = inicio >>> 6;
+            int ultima = Math.min((fin - 1) >>> 6, registrado.length - 1);
+            for (int i = primera; i <= ultima; i++) {
+                long mascara = registrado[i];
+                if (i == primera) {
+                    mascara &= -1L << inicio;
+                }
+                if (i == (fin - 1) >>> 6) {
+                    mascara &= -1L >>> (63 - ((fin - 1) & 63));
+                }
+                long b = bajo[i];
+                long a = alto[i];
+                mascara &= switch (estado) {
+                    case PRESENTE -> ~a & ~b;
+                    case AUSENTE -> ~a & b;
+                    case TARDE -> a & ~b;
+                    case JUSTIFICADO -> a & b;
+                };
+                total += Long.bitCount(mascara);
+            }
+            return total;
+        }
+
+        private MatrizAsistenciaDTO.Fila toDto(Long estudianteId, int inicio, int fin) {
+            List<EstadoAsistencia> estados = new ArrayList<>(Math.max(0, fin - inicio));
+            for (int dia = inicio; dia < fin; dia++) {
+                estados.add(get(dia));
+            }
+            return new MatrizAsistenciaDTO.Fila(estudianteId, estados,
+                    contar(inicio, fin, EstadoAsistencia.PRESENTE),
+                    contar(inicio, fin, EstadoAsistencia.AUSENTE),
+                    contar(inicio, fin, EstadoAsistencia.TARDE),
+                    contar(inicio, fin, EstadoAsistencia.JUSTIFICADO));
+        }
+
+        private void asegurarCapacidad(int dia) {
+            int palabras = (dia >>> 6) + 1;
+            if (palabras > registrado.length) {
+                int capacidad = Math.max(palabras, registrado.length * 2);
+                registrado = Arrays.copyOf(registrado, capacidad);
+                bajo = Arrays.copyOf(bajo, capacidad);
+                alto = Arrays.copyOf(alto, capacidad);
+            }
+        }
+    }
+}
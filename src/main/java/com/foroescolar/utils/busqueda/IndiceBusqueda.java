@@ -0,0 +1,344 @@
+package com.foroescolar.utils.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre campos de texto cortos (nombres, apellidos, documentos, emails).
+ * Los términos se normalizan sin acentos ni mayúsculas y se guardan ordenados, de modo que una
+ * búsqueda por prefijo es un rango del diccionario. Cada término de la consulta debe coincidir con
+ * algún término del documento de forma exacta, por prefijo o, en palabras de 4 o más letras, con un
+ * error de tipeo (distancia de Damerau-Levenshtein acotada que comparte la primera letra).
+ * Las lecturas no bloquean; las escrituras se serializan entre sí.
+ *
+ * @param <D> documento devuelto por las búsquedas
+ */
+public class IndiceBusqueda<D> {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES_NUMERICOS = Pattern.compile("(?<=\\d)[.\\-](?=\\d)");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int PUNTAJE_EXACTO = 3;
+    private static final int PUNTAJE_PREFIJO = 2;
+    private static final int PUNTAJE_APROXIMADO = 1;
+    private static final int LONGITUD_MINIMA_APROXIMADA = 4;
+    private static final int LONGITUD_DOS_ERRORES = 8;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> terminos = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Entrada<D>> documentos = new ConcurrentHashMap<>();
+
+    public record Coincidencia<D>(Long id, D documento, int puntaje) {
+    }
+
+    private record Entrada<D>(D documento, String[] terminos) {
+    }
+
+    /**
+     * Indexa (o reindexa) el documento con los términos de los campos indicados
+     */
+    public synchronized void indexar(Long id, D documento, String... campos) {
+        String[] nuevos = tokenizar(campos).toArray(String[]::new);
+        Entrada<D> anterior = documentos.put(id, new Entrada<>(documento, nuevos));
+        if (anterior != null) {
+            Set<String> vigentes = Set.of(nuevos);
+            for (String termino : anterior.terminos()) {
+                if (!vigentes.contains(termino)) {
+                    quitarPosting(termino, id);
+                }
+            }
+        }
+        for (String termino : nuevos) {
+            terminos.computeIfAbsent(termino, t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public synchronized void eliminar(Long id) {
+        Entrada<D> anterior = documentos.remove(id);
+        if (anterior != null) {
+            for (String termino : anterior.terminos()) {
+                quitarPosting(termino, id);
+            }
+        }
+    }
+
+    public synchronized void limpiar() {
+        documentos.clear();
+        terminos.clear();
+    }
+
+    /**
+     * Documentos que coinciden con todos los términos de la consulta, de mayor a menor puntaje.
+     * Los candidatos salen del término más selectivo (el de menos documentos), recorriendo sus coincidencias
+     * exactas, luego por prefijo y por último aproximadas; el resto de los términos se verifica contra
+     * los términos propios de cada candidato. El recorrido termina en cuanto ningún candidato pendiente
+     * puede superar a los ya elegidos, de modo que las consultas amplias no recorren todo el índice.
+     */
+    public List<Coincidencia<D>> buscar(String consulta, int limite) {
+        List<String> tokens = new ArrayList<>(tokenizar(consulta));
+        if (tokens.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        String pivote = pivote(tokens);
+        List<String> resto = new ArrayList<>(tokens);
+        resto.remove(pivote);
+        int maximoResto = 0;
+        for (String token : resto) {
+            int maximo = puntajeAlcanzable(token);
+            if (maximo == 0) {
+                return List.of();
+            }
+            maximoResto += maximo;
+        }
+        Recorrido recorrido = new Recorrido(resto, maximoResto, limite);
+
+        Set<Long> exactos = terminos.get(pivote);
+        boolean completo = exactos != null && recorrido.nivel(List.of(exactos), PUNTAJE_EXACTO);
+        if (!completo) {
+            completo = recorrido.nivel(
+                    terminos.subMap(pivote, false, pivote + Character.MAX_VALUE, false).values(), PUNTAJE_PREFIJO);
+        }
+        if (!completo && admiteErrores(pivote)) {
+            recorrido.nivel(aproximados(pivote), PUNTAJE_APROXIMADO);
+        }
+        return recorrido.resultado();
+    }
+
+    public int size() {
+        return documentos.size();
+    }
+
+    public int terminos() {
+        return terminos.size();
+    }
+
+    /**
+     * Términos normalizados de los textos: sin acentos, en minúsculas y con los documentos
+     * con puntos o guiones (12.345.678) unidos en un solo término
+     */
+    public static Set<String> tokenizar(String... textos) {
+        Set<String> tokens = new HashSet<>();
+        for (String texto : textos) {
+            if (texto == null || texto.isBlank()) {
+                continue;
+            }
+            String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+            normalizado = SEPARADORES_NUMERICOS.matcher(normalizado.toLowerCase(Locale.ROOT)).replaceAll("");
+            for (String token : SEPARADORES.split(normalizado)) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Token con menos documentos por coincidencia exacta o de prefijo. El conteo de cada token se corta
+     * al superar el del mejor hasta el momento, así un prefijo muy corto no recorre todo el diccionario.
+     * Los tokens que solo coinciden por aproximación se usan como pivote solo si no queda otro.
+     */
+    private String pivote(List<String> tokens) {
+        String pivote = null;
+        long menor = Long.MAX_VALUE;
+        for (String token : tokens) {
+            long volumen = 0;
+            for (Set<Long> ids : terminos.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                volumen += ids.size();
+                if (volumen >= menor) {
+                    break;
+                }
+            }
+            if (volumen == 0) {
+                volumen = Long.MAX_VALUE - token.length();
+            }
+            if (pivote == null || volumen < menor) {
+                pivote = token;
+                menor = volumen;
+            }
+        }
+        return pivote;
+    }
+
+    // Mejor puntaje que el token puede aportar según el diccionario; acota el recorrido de candidatos
+    private int puntajeAlcanzable(String token) {
+        if (terminos.containsKey(token)) {
+            return PUNTAJE_EXACTO;
+        }
+        String siguiente = terminos.higherKey(token);
+        if (siguiente != null && siguiente.startsWith(token)) {
+            return PUNTAJE_PREFIJO;
+        }
+        return admiteErrores(token) ? PUNTAJE_APROXIMADO : 0;
+    }
+
+    // Postings de los términos a distancia de tipeo del token que comparten su primera letra
+    private List<Set<Long>> aproximados(String token) {
+        List<Set<Long>> postings = new ArrayList<>();
+        int maximo = erroresPermitidos(token);
+        String inicial = token.substring(0, 1);
+        for (var termino : terminos.subMap(inicial, true, inicial + Character.MAX_VALUE, false).entrySet()) {
+            if (!termino.getKey().startsWith(token) && distancia(token, termino.getKey(), maximo) <= maximo) {
+                postings.add(termino.getValue());
+            }
+        }
+        return postings;
+    }
+
+    // Suma del mejor puntaje de cada token; 0 si alguno no coincide con ningún término
+    private static int puntuar(List<String> tokens, String[] terminosDocumento) {
+        int total = 0;
+        for (String token : tokens) {
+            int mejor = 0;
+            for (String termino : terminosDocumento) {
+                mejor = Math.max(mejor, puntuar(token, termino));
+                if (mejor == PUNTAJE_EXACTO) {
+                    break;
+                }
+            }
+            if (mejor == 0) {
+                return 0;
+            }
+            total += mejor;
+        }
+        return total;
+    }
+
+    private static int puntuar(String token, String termino) {
+        if (termino.equals(token)) {
+            return PUNTAJE_EXACTO;
+        }
+        if (termino.startsWith(token)) {
+            return PUNTAJE_PREFIJO;
+        }
+        if (admiteErrores(token) && termino.charAt(0) == token.charAt(0)) {
+            int maximo = erroresPermitidos(token);
+            return distancia(token, termino, maximo) <= maximo ? PUNTAJE_APROXIMADO : 0;
+        }
+        return 0;
+    }
+
+    // Los documentos numéricos solo coinciden por prefijo: un dígito errado es otro documento
+    private static boolean admiteErrores(String token) {
+        return token.length() >= LONGITUD_MINIMA_APROXIMADA && !Character.isDigit(token.charAt(0));
+    }
+
+    private static int erroresPermitidos(String token) {
+        return token.length() >= LONGITUD_DOS_ERRORES ? 2 : 1;
+    }
+
+    /**
+     * Distancia de Damerau-Levenshtein (alineación óptima) entre a y b; devuelve maximo + 1
+     * en cuanto una fila completa supera el máximo
+     */
+    static int distancia(String a, String b, int maximo) {
+        if (Math.abs(a.length() - b.length()) > maximo) {
+            return maximo + 1;
+        }
+        int[] anterior2 = new int[b.length() + 1];
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoFila = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(actual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + costo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maximo) {
+                return maximo + 1;
+            }
+            int[] libre = anterior2;
+            anterior2 = anterior;
+            anterior = actual;
+            actual = libre;
+        }
+        return anterior[b.length()];
+    }
+
+    /**
+     * Estado de una búsqueda: los mejores candidatos hasta el momento y los documentos ya vistos
+     */
+    private final class Recorrido {
+
+        private final List<String> resto;
+        private final int maximoResto;
+        private final int limite;
+        private final Comparator<Coincidencia<D>> orden = Comparator.<Coincidencia<D>>comparingInt(Coincidencia::puntaje)
+                .thenComparing(Coincidencia::id, Comparator.reverseOrder());
+        private final PriorityQueue<Coincidencia<D>> mejores;
+        private final Set<Long> vistos = new HashSet<>();
+
+        private Recorrido(List<String> resto, int maximoResto, int limite) {
+            this.resto = resto;
+            this.maximoResto = maximoResto;
+            this.limite = limite;
+            this.mejores = new PriorityQueue<>(limite + 1, orden);
+        }
+
+        /**
+         * Evalúa los documentos de un nivel de coincidencia del pivote.
+         * Devuelve true si la búsqueda quedó completa y no hace falta bajar de nivel.
+         */
+        private boolean nivel(Iterable<Set<Long>> postings, int puntajePivote) {
+            int cota = puntajePivote + maximoResto;
+            if (completo(cota)) {
+                return true;
+            }
+            for (Set<Long> ids : postings) {
+                for (Long id : ids) {
+                    if (!vistos.add(id)) {
+                        continue;
+                    }
+                    Entrada<D> entrada = documentos.get(id);
+                    int puntajeResto = entrada == null ? 0 : puntuar(resto, entrada.terminos());
+                    if (entrada == null || (!resto.isEmpty() && puntajeResto == 0)) {
+                        continue;
+                    }
+                    mejores.offer(new Coincidencia<>(id, entrada.documento(), puntajePivote + puntajeResto));
+                    if (mejores.size() > limite) {
+                        mejores.poll();
+                    }
+                    if (completo(cota)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean completo(int cota) {
+            return mejores.size() >= limite && mejores.peek().puntaje() >= cota;
+        }
+
+        private List<Coincidencia<D>> resultado() {
+            List<Coincidencia<D>> resultado = new ArrayList<>(mejores);
+            resultado.sort(orden.reversed());
+            return resultado;
+        }
+    }
+
+    private void quitarPosting(String termino, Long id) {
+        terminos.computeIfPresent(termino, (t, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.foroescolar.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * Expira cada entrada un tiempo fijo después de cargarse. A diferencia de expireAfterWrite,
+ * las actualizaciones en sitio (compute) no reinician el plazo, y a diferencia de expireAfterAccess
+ * tampoco las lecturas: una entrada consultada y actualizada sin pausa se recarga igualmente.
+ */
+public final class LoadTimeExpiry<K, V> implements Expiry<K, V> {
+
+    private final long ttlNanos;
+
+    public LoadTimeExpiry(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+        return ttlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,98 @@
+package com.foroescolar.utils.collections;
+
+import java.util.Collection;
+
+/**
+ * Conjunto inmutable de valores long con direccionamiento abierto (sondeo lineal).
+ * Guarda los valores en un array primitivo, sin objetos Long por elemento, y responde
+ * {@link #contains(Long)} en O(1). Al ser inmutable puede compartirse entre hilos.
+ */
+public final class LongHashSet {
+
+    private static final LongHashSet EMPTY = new LongHashSet(new long[0], false, 0);
+
+    // 0 marca una celda vacía; su presencia se guarda aparte
+    private final long[] table;
+    private final boolean containsZero;
+    private final int size;
+
+    private LongHashSet(long[] table, boolean containsZero, int size) {
+        this.table = table;
+        this.containsZero = containsZero;
+        this.size = size;
+    }
+
+    public static LongHashSet of(Collection<Long> values) {
+        if (values.isEmpty()) {
+            return EMPTY;
+        }
+        // Factor de carga máximo de 0,5
+        int capacity = Integer.highestOneBit(Math.max(2, values.size() * 2 - 1)) << 1;
+        long[] table = new long[capacity];
+        boolean containsZero = false;
+        int size = 0;
+        for (Long value : values) {
+            if (value == null) {
+                continue;
+            }
+            if (value == 0) {
+                if (!containsZero) {
+                    containsZero = true;
+                    size++;
+                }
+                continue;
+            }
+            int slot = slot(value, capacity - 1);
+            while (table[slot] != 0 && table[slot] != value) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (table[slot] == 0) {
+                table[slot] = value;
+                size++;
+            }
+        }
+        return new LongHashSet(table, containsZero, size);
+    }
+
+    public boolean contains(Long value) {
+        if (value == null) {
+            return false;
+        }
+        if (value == 0) {
+            return containsZero;
+        }
+        if (table.length == 0) {
+            return false;
+        }
+        int mask = table.length - 1;
+        int slot = slot(value, mask);
+        long current;
+        while ((current = table[slot]) != 0) {
+            if (current == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Memoria aproximada ocupada por la tabla, en bytes
+     */
+    public long memoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    private static int slot(long value, int mask) {
+        // Mezcla de bits (fmix64 de MurmurHash3) para repartir IDs consecutivos
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,131 @@
+package com.foroescolar.utils.token;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Filtro de Bloom concurrente para huellas de tokens revocados.
+ * Un resultado negativo garantiza que el token no fue revocado; uno positivo solo indica
+ * que puede estarlo. Mantiene dos generaciones que rotan cada {@code generationTtl}:
+ * una entrada sobrevive entre una y dos rotaciones, por lo que con el TTL de la lista negra
+ * ninguna revocación vigente desaparece del filtro y las expiradas se descartan solas.
+ */
+public class TokenBloomFilter {
+
+    private final int numBits;
+    private final int numHashFunctions;
+    private final long generationTtlMillis;
+    private final LongSupplier clock;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+    private volatile long nextRotation;
+
+    public TokenBloomFilter(long expectedInsertions, double falsePositiveProbability, Duration generationTtl) {
+        this(expectedInsertions, falsePositiveProbability, generationTtl, System::currentTimeMillis);
+    }
+
+    TokenBloomFilter(long expectedInsertions, double falsePositiveProbability, Duration generationTtl, LongSupplier clock) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.min(Integer.MAX_VALUE - 63L, Math.max(64, bits));
+        this.numHashFunctions = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.generationTtlMillis = generationTtl.toMillis();
+        this.clock = clock;
+        this.current = new Generation(numBits);
+        this.previous = new Generation(numBits);
+        this.nextRotation = clock.getAsLong() + generationTtlMillis;
+    }
+
+    public void put(TokenFingerprint fingerprint) {
+        rotateIfNeeded();
+        Generation generation = current;
+        long combined = fingerprint.high();
+        for (int i = 0; i < numHashFunctions; i++) {
+            generation.set(index(combined));
+            combined += fingerprint.low();
+        }
+    }
+
+    public boolean mightContain(TokenFingerprint fingerprint) {
+        rotateIfNeeded();
+        return contains(current, fingerprint) || contains(previous, fingerprint);
+    }
+
+    /**
+     * Probabilidad de falso positivo esperada según el llenado actual de ambas generaciones
+     */
+    public double expectedFalsePositiveProbability() {
+        double fpCurrent = Math.pow(current.fillRatio(numBits), numHashFunctions);
+        double fpPrevious = Math.pow(previous.fillRatio(numBits), numHashFunctions);
+        return fpCurrent + fpPrevious - fpCurrent * fpPrevious;
+    }
+
+    /**
+     * Memoria ocupada por los bits de ambas generaciones, en bytes
+     */
+    public long memoryBytes() {
+        return 2L * current.words.length() * Long.BYTES;
+    }
+
+    private boolean contains(Generation generation, TokenFingerprint fingerprint) {
+        long combined = fingerprint.high();
+        for (int i = 0; i < numHashFunctions; i++) {
+            if (!generation.get(index(combined))) {
+                return false;
+            }
+            combined += fingerprint.low();
+        }
+        return true;
+    }
+
+    private int index(long combinedHash) {
+        return (int) Long.remainderUnsigned(combinedHash, numBits);
+    }
+
+    private void rotateIfNeeded() {
+        if (clock.getAsLong() < nextRotation) {
+            return;
+        }
+        synchronized (this) {
+            long now = clock.getAsLong();
+            if (now < nextRotation) {
+                return;
+            }
+            previous = current;
+            current = new Generation(numBits);
+            nextRotation = now + generationTtlMillis;
+        }
+    }
+
+    private static final class Generation {
+        private final AtomicLongArray words;
+        private final AtomicLong bitCount = new AtomicLong();
+
+        private Generation(int numBits) {
+            this.words = new AtomicLongArray((numBits + 63) >>> 6);
+        }
+
+        private void set(int bit) {
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long value;
+            do {
+                value = words.get(word);
+                if ((value & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(word, value, value | mask));
+            bitCount.incrementAndGet();
+        }
+
+        private boolean get(int bit) {
+            return (words.get(bit >>> 6) & (1L << bit)) != 0;
+        }
+
+        private double fillRatio(int numBits) {
+            return (double) bitCount.get() / numBits;
+        }
+    }
+}
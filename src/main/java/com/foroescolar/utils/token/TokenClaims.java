@@ -0,0 +1,9 @@
+package com.foroescolar.utils.token;
+
+import com.foroescolar.enums.RoleEnum;
+
+/**
+ * Claims de usuario de un JWT cuya firma, expiración y lista negra ya fueron verificadas
+ */
+public record TokenClaims(String email, Long id, RoleEnum rol, String nombre) {
+}
@@ -0,0 +1,78 @@
+package com.foroescolar.utils.token;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Huella de tamaño fijo (128 bits) de un token JWT.
+ * Se usa como clave en las cachés de tokens y en las claves de lista negra de Redis
+ * en lugar del token completo. Son los primeros 128 bits del SHA-256 de los bytes UTF-8
+ * del token: encontrar dos tokens con la misma huella no es factible, por lo que un acierto
+ * en caché identifica al token ya verificado.
+ */
+public record TokenFingerprint(long high, long low) {
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int HEX_LENGTH = 32;
+    private static final String ALGORITHM = "SHA-256";
+
+    public static TokenFingerprint of(String token) {
+        byte[] digest = sha256().digest(token.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        return new TokenFingerprint(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Reconstruye la huella desde su representación hexadecimal (ver {@link #toString()}).
+     * Si el valor no es una huella (p. ej. claves antiguas que guardaban el token completo),
+     * se calcula la huella del valor recibido.
+     */
+    public static TokenFingerprint fromString(String value) {
+        if (isFingerprint(value)) {
+            return new TokenFingerprint(
+                    HexFormat.fromHexDigitsToLong(value, 0, 16),
+                    HexFormat.fromHexDigitsToLong(value, 16, HEX_LENGTH));
+        }
+        return of(value);
+    }
+
+    /**
+     * Indica si el valor es la representación hexadecimal de una huella
+     */
+    public static boolean isFingerprint(String value) {
+        return value.length() == HEX_LENGTH && isHex(value);
+    }
+
+    /**
+     * Índice estable en el rango [0, buckets) derivado de la huella
+     */
+    public int bucket(int buckets) {
+        return (int) Long.remainderUnsigned(low, buckets);
+    }
+
+    @Override
+    public String toString() {
+        return HEX.toHexDigits(high) + HEX.toHexDigits(low);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM debe incluir SHA-256
+            throw new IllegalStateException(ALGORITHM + " no disponible", e);
+        }
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
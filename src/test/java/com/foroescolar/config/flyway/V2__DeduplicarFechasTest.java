@@ -0,0 +1,111 @@
+package com.foroescolar.config.flyway;
+
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * La migración se prueba sobre el esquema previo a la restricción única (tablas sin uk_fecha_fecha),
+ * que Hibernate ya no genera; sin Docker se omite
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class V2__DeduplicarFechasTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36");
+
+    private Connection connection;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+        jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS resumen_asistencia, asistencia, fecha");
+        jdbcTemplate.execute("CREATE TABLE fecha (id BIGINT AUTO_INCREMENT PRIMARY KEY, fecha DATE NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE asistencia (id BIGINT AUTO_INCREMENT PRIMARY KEY, estudiante_id BIGINT, " +
+                "fecha_id BIGINT, estado VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE resumen_asistencia (estudiante_id BIGINT, anio INT, trimestre INT, " +
+                "presentes INT, PRIMARY KEY (estudiante_id, anio, trimestre))");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void fusionaLasFechasRepetidasYConservaLaUltimaAsistenciaDelEstudiante() {
+        jdbcTemplate.update("INSERT INTO fecha (id, fecha) VALUES (1, '2024-05-06'), (2, '2024-05-06'), (3, '2024-05-07')");
+        // Ana tiene asistencia en las dos filas del lunes; beto solo en la duplicada
+        jdbcTemplate.update("INSERT INTO asistencia (id, estudiante_id, fecha_id, estado) VALUES " +
+                "(10, 1, 1, 'AUSENTE'), (11, 1, 2, 'JUSTIFICADO'), (12, 2, 2, 'PRESENTE'), (13, 1, 3, 'PRESENTE')");
+        jdbcTemplate.update("INSERT INTO resumen_asistencia VALUES (1, 2024, 2, 2)");
+
+        migrar();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM fecha ORDER BY id", Long.class)).containsExactly(1L, 3L);
+        assertThat(jdbcTemplate.query("SELECT id, fecha_id, estado FROM asistencia ORDER BY id",
+                (rs, i) -> tuple(rs.getLong(1), rs.getLong(2), rs.getString(3))))
+                .containsExactly(
+                        tuple(11L, 1L, "JUSTIFICADO"),
+                        tuple(12L, 1L, "PRESENTE"),
+                        tuple(13L, 3L, "PRESENTE"));
+        // Los contadores incluían la asistencia eliminada: se reconstruyen al arrancar
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM resumen_asistencia", Integer.class)).isZero();
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO fecha (fecha) VALUES ('2024-05-07')"))
+                .hasMessageContaining("uk_fecha_fecha");
+    }
+
+    @Test
+    void sinConflictosSoloReasignaYConservaElResumen() {
+        jdbcTemplate.update("INSERT INTO fecha (id, fecha) VALUES (1, '2024-05-06'), (2, '2024-05-06')");
+        jdbcTemplate.update("INSERT INTO asistencia (id, estudiante_id, fecha_id, estado) VALUES (10, 1, 2, 'PRESENTE')");
+        jdbcTemplate.update("INSERT INTO resumen_asistencia VALUES (1, 2024, 2, 1)");
+
+        migrar();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT fecha_id FROM asistencia", Long.class)).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM resumen_asistencia", Integer.class)).isOne();
+    }
+
+    @Test
+    void esIdempotenteYNoHaceNadaSinLaTablaFecha() {
+        migrar();
+        migrar();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND index_name = 'uk_fecha_fecha'", Integer.class)).isOne();
+
+        jdbcTemplate.execute("DROP TABLE resumen_asistencia, asistencia, fecha");
+        migrar();
+    }
+
+    private void migrar() {
+        new V2__DeduplicarFechas().migrate(new Context() {
+            @Override
+            public Configuration getConfiguration() {
+                return null;
+            }
+
+            @Override
+            public Connection getConnection() {
+                return connection;
+            }
+        });
+    }
+}
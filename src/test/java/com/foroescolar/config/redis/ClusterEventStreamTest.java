@@ -0,0 +1,80 @@
+package com.foroescolar.config.redis;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.Subscription;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class ClusterEventStreamTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private final RedisConfig redisConfig = new RedisConfig();
+    private final List<StreamMessageListenerContainer<String, MapRecord<String, String, String>>> containers = new ArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @AfterEach
+    void tearDown() {
+        containers.forEach(StreamMessageListenerContainer::stop);
+    }
+
+    @Test
+    void losMensajesLleganAlRestoDeNodosPeroNoAlQueLosPublica() {
+        ClusterEventStream nodoA = nodo();
+        ClusterEventStream nodoB = nodo();
+        List<Map<String, String>> recibidosA = new CopyOnWriteArrayList<>();
+        List<Map<String, String>> recibidosB = new CopyOnWriteArrayList<>();
+        Subscription suscripcionA = nodoA.suscribir("pruebas", recibidosA::add);
+        Subscription suscripcionB = nodoB.suscribir("pruebas", recibidosB::add);
+        await().atMost(Duration.ofSeconds(10)).until(() -> suscripcionA.isActive() && suscripcionB.isActive());
+
+        nodoA.publicar("pruebas", Map.of("gradoId", "7"));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> !recibidosB.isEmpty());
+        assertThat(recibidosB.get(0)).containsEntry("gradoId", "7");
+        assertThat(recibidosA).isEmpty();
+    }
+
+    private ClusterEventStream nodo() {
+        StreamMessageListenerContainer<String, MapRecord<String, String, String>> container =
+                redisConfig.streamMessageListenerContainer(connectionFactory);
+        containers.add(container);
+        return new ClusterEventStream(redisConfig.redisTemplate(connectionFactory), container);
+    }
+}
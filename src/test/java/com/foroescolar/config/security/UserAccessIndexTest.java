@@ -0,0 +1,95 @@
+package com.foroescolar.config.security;
+
+import com.foroescolar.config.redis.ClusterEventStream;
+import com.foroescolar.repository.EstudianteRepository;
+import com.foroescolar.repository.GradoRepository;
+import com.foroescolar.repository.TutorLegalRepository;
+import com.foroescolar.services.events.AccessRelationsChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserAccessIndexTest {
+
+    private final GradoRepository gradoRepository = mock(GradoRepository.class);
+    private final EstudianteRepository estudianteRepository = mock(EstudianteRepository.class);
+    private final TutorLegalRepository tutorLegalRepository = mock(TutorLegalRepository.class);
+    private final ClusterEventStream clusterEventStream = mock(ClusterEventStream.class);
+
+    private UserAccessIndex index;
+    private Consumer<Map<String, String>> mensajesRemotos;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        index = new UserAccessIndex(gradoRepository, estudianteRepository, tutorLegalRepository,
+                new SecurityConfiguration.SecurityMetricsService(new SimpleMeterRegistry()),
+                clusterEventStream, 1_000, Duration.ofMinutes(30));
+        index.suscribirCambiosRemotos();
+        ArgumentCaptor<Consumer<Map<String, String>>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(clusterEventStream).suscribir(eq("acceso"), captor.capture());
+        mensajesRemotos = captor.getValue();
+    }
+
+    @Test
+    void respondeCadaRelacionDesdeSuConsulta() {
+        when(gradoRepository.findIdsByProfesorId(1L)).thenReturn(List.of(10L, 11L));
+        when(gradoRepository.findIdsByEstudiantesTutorId(2L)).thenReturn(List.of(10L));
+        when(gradoRepository.findIdsByEstudiantesId(3L)).thenReturn(List.of(11L));
+        when(estudianteRepository.findIdsByTutorId(2L)).thenReturn(List.of(3L));
+        when(tutorLegalRepository.findIdsByEstudiantesProfesorId(1L)).thenReturn(List.of(2L));
+
+        assertThat(index.allows(1L, AccessRelation.PROFESOR_GRADO, 11L)).isTrue();
+        assertThat(index.allows(1L, AccessRelation.PROFESOR_GRADO, 12L)).isFalse();
+        assertThat(index.allows(2L, AccessRelation.TUTOR_GRADO, 10L)).isTrue();
+        assertThat(index.allows(3L, AccessRelation.ESTUDIANTE_GRADO, 10L)).isFalse();
+        assertThat(index.allows(2L, AccessRelation.TUTOR_ESTUDIANTE, 3L)).isTrue();
+        assertThat(index.allows(1L, AccessRelation.PROFESOR_TUTOR, 2L)).isTrue();
+        // Un usuario sin la relación no accede a nada
+        assertThat(index.allows(2L, AccessRelation.PROFESOR_GRADO, 10L)).isFalse();
+    }
+
+    @Test
+    void cargaCadaAlcanceUnaSolaVez() {
+        when(gradoRepository.findIdsByProfesorId(1L)).thenReturn(List.of(10L, 11L));
+
+        for (long gradoId = 1; gradoId <= 50; gradoId++) {
+            index.allows(1L, AccessRelation.PROFESOR_GRADO, gradoId);
+        }
+
+        verify(gradoRepository, times(1)).findIdsByProfesorId(1L);
+    }
+
+    @Test
+    void unCambioLocalInvalidaElIndiceYSePropagaAlRestoDeNodos() {
+        when(gradoRepository.findIdsByProfesorId(1L)).thenReturn(List.of(10L), List.of(10L, 12L));
+        assertThat(index.allows(1L, AccessRelation.PROFESOR_GRADO, 12L)).isFalse();
+
+        index.onAccessRelationsChanged(new AccessRelationsChangedEvent("GradoService.update"));
+
+        assertThat(index.allows(1L, AccessRelation.PROFESOR_GRADO, 12L)).isTrue();
+        verify(clusterEventStream).publicar(eq("acceso"), anyMap());
+    }
+
+    @Test
+    void unCambioEnOtroNodoInvalidaElIndice() {
+        when(gradoRepository.findIdsByProfesorId(1L)).thenReturn(List.of(10L), List.of());
+        assertThat(index.allows(1L, AccessRelation.PROFESOR_GRADO, 10L)).isTrue();
+
+        mensajesRemotos.accept(Map.of("origen", "GradoService.update"));
+
+        assertThat(index.allows(1L, AccessRelation.PROFESOR_GRADO, 10L)).isFalse();
+        verify(clusterEventStream, never()).publicar(eq("acceso"), anyMap());
+    }
+}
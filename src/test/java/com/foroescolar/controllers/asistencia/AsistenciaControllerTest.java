@@ -0,0 +1,121 @@
+package com.foroescolar.controllers.asistencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foroescolar.config.security.AccessRelation;
+import com.foroescolar.config.security.CurrentUserContext;
+import com.foroescolar.config.security.SecurityService;
+import com.foroescolar.config.security.UserAccessIndex;
+import com.foroescolar.dtos.asistencia.PaginaAsistenciaDTO;
+import com.foroescolar.dtos.estudiante.EstudianteGradoDTO;
+import com.foroescolar.dtos.user.AuthenticatedUser;
+import com.foroescolar.enums.RoleEnum;
+import com.foroescolar.repository.AsistenciaRepository;
+import com.foroescolar.repository.EstudianteRepository;
+import com.foroescolar.repository.TutorLegalRepository;
+import com.foroescolar.repository.UserRepository;
+import com.foroescolar.services.AsistenciaService;
+import com.foroescolar.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AsistenciaControllerTest {
+
+    private static final long ESTUDIANTE_ID = 7L;
+    private static final long GRADO_ID = 3L;
+
+    private final AsistenciaService asistenciaService = mock(AsistenciaService.class);
+    private final EstudianteRepository estudianteRepository = mock(EstudianteRepository.class);
+    private final UserAccessIndex userAccessIndex = mock(UserAccessIndex.class);
+    private final CurrentUserContext currentUserContext = new CurrentUserContext();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SecurityService securityService = new SecurityService(mock(UserRepository.class), mock(AsistenciaRepository.class),
+                mock(TutorLegalRepository.class), estudianteRepository, currentUserContext, userAccessIndex);
+        AsistenciaController controller = new AsistenciaController(asistenciaService, mock(UserService.class),
+                securityService, new ObjectMapper());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        when(estudianteRepository.findGradoIdsByIdIn(List.of(ESTUDIANTE_ID)))
+                .thenReturn(List.of(new EstudianteGradoDTO(ESTUDIANTE_ID, GRADO_ID)));
+        when(asistenciaService.getPageByEstudiante(eq(ESTUDIANTE_ID), any(), anyInt()))
+                .thenReturn(new PaginaAsistenciaDTO(List.of(), null));
+    }
+
+    @Test
+    void unAdministradorVeLasAsistenciasDeCualquierEstudiante() throws Exception {
+        autenticar(1L, RoleEnum.ROLE_ADMINISTRADOR);
+
+        mockMvc.perform(get("/api/asistencia/estudiante/{id}/page", ESTUDIANTE_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value(true));
+
+        verify(asistenciaService).getPageByEstudiante(ESTUDIANTE_ID, null, 100);
+    }
+
+    @Test
+    void unProfesorVeLasAsistenciasDeLosEstudiantesDeSuGrado() throws Exception {
+        autenticar(2L, RoleEnum.ROLE_PROFESOR);
+        when(userAccessIndex.allows(2L, AccessRelation.PROFESOR_GRADO, GRADO_ID)).thenReturn(true);
+
+        mockMvc.perform(get("/api/asistencia/estudiante/{id}/page", ESTUDIANTE_ID).param("size", "20"))
+                .andExpect(status().isOk());
+
+        verify(asistenciaService).getPageByEstudiante(ESTUDIANTE_ID, null, 20);
+        // La relación tutor-estudiante no interviene: el profesor no es tutor del estudiante
+        verify(userAccessIndex, never()).allows(anyLong(), eq(AccessRelation.TUTOR_ESTUDIANTE), anyLong());
+    }
+
+    @Test
+    void unProfesorNoVeLasAsistenciasDeEstudiantesDeOtroGrado() throws Exception {
+        autenticar(2L, RoleEnum.ROLE_PROFESOR);
+        when(userAccessIndex.allows(2L, AccessRelation.PROFESOR_GRADO, GRADO_ID)).thenReturn(false);
+
+        mockMvc.perform(get("/api/asistencia/estudiante/{id}/page", ESTUDIANTE_ID))
+                .andExpect(status().isForbidden());
+
+        verify(asistenciaService, never()).getPageByEstudiante(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void elIdDelUsuarioNoSeComparaConElIdDelEstudiante() throws Exception {
+        // Usuarios y estudiantes son tablas distintas: el profesor con id 7 no es el estudiante 7
+        autenticar(ESTUDIANTE_ID, RoleEnum.ROLE_PROFESOR);
+        when(userAccessIndex.allows(ESTUDIANTE_ID, AccessRelation.PROFESOR_GRADO, GRADO_ID)).thenReturn(false);
+
+        mockMvc.perform(get("/api/asistencia/estudiante/{id}/page", ESTUDIANTE_ID))
+                .andExpect(status().isForbidden());
+
+        verify(asistenciaService, never()).getPageByEstudiante(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void unEstudianteInexistenteNoSeMuestra() throws Exception {
+        autenticar(1L, RoleEnum.ROLE_ADMINISTRADOR);
+        when(estudianteRepository.findGradoIdsByIdIn(List.of(99L))).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/asistencia/estudiante/{id}/page", 99L))
+                .andExpect(status().isForbidden());
+
+        verify(asistenciaService, never()).getPageByEstudiante(anyLong(), any(), anyInt());
+    }
+
+    private void autenticar(Long id, RoleEnum rol) {
+        currentUserContext.set(new AuthenticatedUser(id, "usuario" + id + "@foroescolar.test", "Usuario", rol));
+    }
+}
@@ -0,0 +1,58 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.enums.CursoEnum;
+import com.foroescolar.enums.EstadoAsistencia;
+import com.foroescolar.model.Asistencia;
+import com.foroescolar.model.Estudiante;
+import com.foroescolar.model.Fecha;
+import com.foroescolar.model.Grado;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AsistenciaBatchRepositoryTest extends MySqlRepositoryTest {
+
+    @Autowired
+    private AsistenciaRepository asistenciaRepository;
+
+    @Test
+    void insertaLaTomaDeVariosGradosEnUnBatch() {
+        Grado primero = grado(CursoEnum.PRIMERO);
+        Grado segundo = grado(CursoEnum.SEGUNDO);
+        Estudiante ana = estudiante(primero, "ana");
+        Estudiante beto = estudiante(primero, "beto");
+        Estudiante carla = estudiante(segundo, "carla");
+        Fecha fecha = fecha(LocalDate.of(2024, 5, 6));
+        entityManager.flush();
+
+        asistenciaRepository.insertAll(fecha.getId(), Map.of(
+                primero.getId(), Map.of(ana.getId(), EstadoAsistencia.PRESENTE, beto.getId(), EstadoAsistencia.AUSENTE),
+                segundo.getId(), Map.of(carla.getId(), EstadoAsistencia.TARDE)));
+        entityManager.clear();
+
+        List<Asistencia> asistencias = asistenciaRepository.findAll();
+        assertThat(asistencias)
+                .extracting(a -> a.getEstudiante().getId(), a -> a.getGrado().getId(), a -> a.getFecha().getId(),
+                        Asistencia::getEstado, Asistencia::getObservaciones)
+                .containsExactlyInAnyOrder(
+                        tuple(ana.getId(), primero.getId(), fecha.getId(), EstadoAsistencia.PRESENTE, "Sin observacion"),
+                        tuple(beto.getId(), primero.getId(), fecha.getId(), EstadoAsistencia.AUSENTE, "Sin observacion"),
+                        tuple(carla.getId(), segundo.getId(), fecha.getId(), EstadoAsistencia.TARDE, "Sin observacion"));
+    }
+
+    @Test
+    void unaTomaVaciaNoInsertaFilas() {
+        Fecha fecha = fecha(LocalDate.of(2024, 5, 7));
+        entityManager.flush();
+
+        asistenciaRepository.insertAll(fecha.getId(), Map.of());
+
+        assertThat(asistenciaRepository.count()).isZero();
+    }
+}
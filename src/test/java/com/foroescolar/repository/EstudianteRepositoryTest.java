@@ -0,0 +1,239 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.dtos.estudiante.EstudianteDetalleDTO;
+import com.foroescolar.dtos.estudiante.EstudianteListaDTO;
+import com.foroescolar.dtos.estudiante.EstudiantePerfilDto;
+import com.foroescolar.dtos.grado.GradoResumenDTO;
+import com.foroescolar.dtos.tutorlegal.TutorResumenDTO;
+import com.foroescolar.enums.AulaEnum;
+import com.foroescolar.enums.CursoEnum;
+import com.foroescolar.enums.EstadoAsistencia;
+import com.foroescolar.enums.GeneroEnum;
+import com.foroescolar.enums.MateriaEnum;
+import com.foroescolar.enums.RoleEnum;
+import com.foroescolar.enums.TipoDocumentoEnum;
+import com.foroescolar.enums.TurnoEnum;
+import com.foroescolar.mapper.estudiante.EstudianteMapper;
+import com.foroescolar.model.Asistencia;
+import com.foroescolar.model.Boletin;
+import com.foroescolar.model.Calificacion;
+import com.foroescolar.model.Estudiante;
+import com.foroescolar.model.Fecha;
+import com.foroescolar.model.Grado;
+import com.foroescolar.model.Institucion;
+import com.foroescolar.model.Profesor;
+import com.foroescolar.model.Tarea;
+import com.foroescolar.model.TutorLegal;
+import com.foroescolar.model.User;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Consultas JPQL de EstudianteRepository sobre una base embebida: el JPQL es portable y lo que
+ * se comprueba es el mapeo de cada fila al DTO
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(EstudianteMapper.class)
+class EstudianteRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+    @Autowired
+    private EstudianteMapper estudianteMapper;
+
+    private Institucion institucion;
+    private Grado matematicas;
+    private Grado historia;
+    private TutorLegal tutor;
+    private Profesor profesor;
+    private Estudiante ana;
+    private Estudiante beto;
+    private Estudiante carla;
+
+    @BeforeEach
+    void setUp() {
+        institucion = new Institucion();
+        institucion.setNombre("Escuela");
+        entityManager.persist(institucion);
+
+        matematicas = grado(MateriaEnum.MATEMATICAS, AulaEnum.A);
+        historia = grado(MateriaEnum.HISTORIA, AulaEnum.B);
+        tutor = usuario(new TutorLegal(), "Laura", RoleEnum.ROLE_TUTOR);
+        tutor.setTelefono("555-1234");
+        profesor = usuario(new Profesor(), "Mario", RoleEnum.ROLE_PROFESOR);
+
+        ana = estudiante("Ana", matematicas, tutor, TipoDocumentoEnum.PASAPORTE);
+        beto = estudiante("Beto", matematicas, null, TipoDocumentoEnum.DNI);
+        carla = estudiante("Carla", historia, tutor, TipoDocumentoEnum.OTROS);
+    }
+
+    @Test
+    void elDetalleTraeGradoYTutorYCuentaLasColeccionesEnLaMismaConsulta() {
+        for (int i = 0; i < 2; i++) {
+            entityManager.persist(Boletin.builder().estudiante(ana).profesor(profesor).periodo("P" + i).build());
+        }
+        for (int dia = 6; dia <= 8; dia++) {
+            Fecha fecha = entityManager.persist(new Fecha(LocalDate.of(2024, 5, dia)));
+            Asistencia asistencia = new Asistencia();
+            asistencia.setEstudiante(ana);
+            asistencia.setGrado(matematicas);
+            asistencia.setFecha(fecha);
+            asistencia.setEstado(EstadoAsistencia.PRESENTE);
+            entityManager.persist(asistencia);
+        }
+        entityManager.persist(Tarea.builder().estudiante(ana).profesor(profesor).titulo("Fracciones").build());
+        for (int i = 0; i < 4; i++) {
+            entityManager.persist(Calificacion.builder().estudiante(ana).profesor(profesor)
+                    .materia(MateriaEnum.MATEMATICAS).nota(8.0).build());
+        }
+        // Colecciones de otro estudiante que no deben sumarse
+        entityManager.persist(Tarea.builder().estudiante(beto).profesor(profesor).titulo("Otra").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Object[]> filas = estudianteRepository.findByIdWithDetails(ana.getId());
+
+        assertThat(filas).hasSize(1);
+        Estudiante estudiante = (Estudiante) filas.get(0)[0];
+        assertThat(Hibernate.isInitialized(estudiante.getGrado())).isTrue();
+        assertThat(Hibernate.isInitialized(estudiante.getTutor())).isTrue();
+        assertThat(Hibernate.isInitialized(estudiante.getBoletin())).isFalse();
+
+        EstudianteDetalleDTO detalle = estudianteMapper.mapearADetalleDTO(filas.get(0));
+        assertThat(detalle.id()).isEqualTo(ana.getId());
+        assertThat(detalle.nombre()).isEqualTo("Ana");
+        assertThat(detalle.numeroDocumento()).isEqualTo("ANA");
+        assertThat(detalle.tipoDocumento()).isEqualTo(TipoDocumentoEnum.PASAPORTE);
+        assertThat(detalle.fechaNacimiento()).isEqualTo(LocalDate.of(2015, 3, 1));
+        assertThat(detalle.grado()).isEqualTo(new GradoResumenDTO(matematicas.getId(), "MATEMATICAS", "A", "TARDE"));
+        assertThat(detalle.tutorLegal()).isEqualTo(new TutorResumenDTO(tutor.getId(), "Laura", "Prueba", "LAURA",
+                "laura@foroescolar.test", "555-1234"));
+        assertThat(detalle.resumenColecciones())
+                .isEqualTo(new EstudianteDetalleDTO.ResumenColeccionesDTO(2, 3, 1, 4));
+    }
+
+    @Test
+    void elDetalleDeUnEstudianteSinTutorNiColeccionesCuentaCero() {
+        entityManager.clear();
+
+        EstudianteDetalleDTO detalle = estudianteMapper.mapearADetalleDTO(
+                estudianteRepository.findByIdWithDetails(beto.getId()).get(0));
+
+        assertThat(detalle.tutorLegal()).isNull();
+        assertThat(detalle.tipoDocumento()).isEqualTo(TipoDocumentoEnum.DNI);
+        assertThat(detalle.resumenColecciones())
+                .isEqualTo(new EstudianteDetalleDTO.ResumenColeccionesDTO(0, 0, 0, 0));
+    }
+
+    @Test
+    void elDetalleDeUnEstudianteInexistenteNoDevuelveFilas() {
+        assertThat(estudianteRepository.findByIdWithDetails(-1L)).isEmpty();
+    }
+
+    @Test
+    void elListadoPaginadoProyectaElGradoDeCadaEstudiante() {
+        entityManager.clear();
+
+        Page<EstudianteListaDTO> pagina = estudianteRepository.findAllLista(PageRequest.of(0, 2, Sort.by("id")));
+
+        assertThat(pagina.getTotalElements()).isEqualTo(3);
+        assertThat(pagina.getContent()).containsExactly(
+                new EstudianteListaDTO(ana.getId(), "Ana", "Prueba", "ANA", GeneroEnum.FEMENINO, true,
+                        matematicas.getId(), "MATEMATICAS"),
+                new EstudianteListaDTO(beto.getId(), "Beto", "Prueba", "BETO", GeneroEnum.FEMENINO, true,
+                        matematicas.getId(), "MATEMATICAS"));
+        assertThat(estudianteRepository.findAllLista(PageRequest.of(1, 2, Sort.by("id"))).getContent())
+                .extracting(EstudianteListaDTO::id, EstudianteListaDTO::gradoId, EstudianteListaDTO::gradoNombre)
+                .containsExactly(tuple(carla.getId(), historia.getId(), "HISTORIA"));
+    }
+
+    @Test
+    void elListadoPorGradoSoloTraeLosEstudiantesDelGrado() {
+        entityManager.clear();
+
+        assertThat(estudianteRepository.findListaByGradoId(historia.getId()))
+                .extracting(EstudianteListaDTO::id, EstudianteListaDTO::gradoId, EstudianteListaDTO::gradoNombre)
+                .containsExactly(tuple(carla.getId(), historia.getId(), "HISTORIA"));
+        assertThat(estudianteRepository.findListaByGradoId(matematicas.getId()))
+                .extracting(EstudianteListaDTO::id)
+                .containsExactlyInAnyOrder(ana.getId(), beto.getId());
+    }
+
+    @Test
+    void losPerfilesProyectanTipoDeDocumentoTutorYGrado() {
+        entityManager.clear();
+
+        assertThat(estudianteRepository.findAllPerfil()).containsExactlyInAnyOrder(
+                new EstudiantePerfilDto(ana.getId(), "Ana", "Prueba", "ANA", GeneroEnum.FEMENINO,
+                        LocalDate.of(2015, 3, 1), "PASAPORTE", true, tutor.getId(), matematicas.getId()),
+                new EstudiantePerfilDto(beto.getId(), "Beto", "Prueba", "BETO", GeneroEnum.FEMENINO,
+                        LocalDate.of(2015, 3, 1), "DNI", true, null, matematicas.getId()),
+                new EstudiantePerfilDto(carla.getId(), "Carla", "Prueba", "CARLA", GeneroEnum.FEMENINO,
+                        LocalDate.of(2015, 3, 1), "OTROS", true, tutor.getId(), historia.getId()));
+    }
+
+    @Test
+    void losPerfilesPorGradoIncluyenEstudiantesSinTutor() {
+        entityManager.clear();
+
+        assertThat(estudianteRepository.findPerfilByGradoId(matematicas.getId()))
+                .extracting(EstudiantePerfilDto::id, EstudiantePerfilDto::tipoDocumento, EstudiantePerfilDto::tutor,
+                        EstudiantePerfilDto::grado)
+                .containsExactlyInAnyOrder(
+                        tuple(ana.getId(), "PASAPORTE", tutor.getId(), matematicas.getId()),
+                        tuple(beto.getId(), "DNI", null, matematicas.getId()));
+        assertThat(estudianteRepository.findPerfilByGradoId(-1L)).isEmpty();
+    }
+
+    private Grado grado(MateriaEnum materia, AulaEnum aula) {
+        Grado grado = new Grado();
+        grado.setCurso(CursoEnum.PRIMERO);
+        grado.setMateria(materia);
+        grado.setAula(aula);
+        grado.setTurno(TurnoEnum.TARDE);
+        grado.setInstitucion(institucion);
+        return entityManager.persist(grado);
+    }
+
+    private <U extends User> U usuario(U usuario, String nombre, RoleEnum rol) {
+        usuario.setNombre(nombre);
+        usuario.setApellido("Prueba");
+        usuario.setDni(nombre.toUpperCase());
+        usuario.setEmail(nombre.toLowerCase() + "@foroescolar.test");
+        usuario.setRol(rol);
+        usuario.setActivo(true);
+        usuario.setInstitucion(institucion);
+        return entityManager.persist(usuario);
+    }
+
+    private Estudiante estudiante(String nombre, Grado grado, TutorLegal tutor, TipoDocumentoEnum tipoDocumento) {
+        return entityManager.persist(Estudiante.builder()
+                .nombre(nombre)
+                .apellido("Prueba")
+                .dni(nombre.toUpperCase())
+                .genero(GeneroEnum.FEMENINO)
+                .fechaNacimiento(LocalDate.of(2015, 3, 1))
+                .tipoDocumento(tipoDocumento)
+                .activo(true)
+                .rol(RoleEnum.ROLE_ESTUDIANTE)
+                .grado(grado)
+                .tutor(tutor)
+                .build());
+    }
+}
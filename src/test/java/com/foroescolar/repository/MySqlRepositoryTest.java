@@ -0,0 +1,63 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.enums.AulaEnum;
+import com.foroescolar.enums.CursoEnum;
+import com.foroescolar.enums.TipoDocumentoEnum;
+import com.foroescolar.model.Estudiante;
+import com.foroescolar.model.Fecha;
+import com.foroescolar.model.Grado;
+import com.foroescolar.model.Institucion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+/**
+ * Base de los tests de repositorios con sentencias propias de MySQL (upserts con alias de fila,
+ * UPDATE/DELETE con JOIN), que no admite una base embebida. El esquema lo crea Hibernate sobre
+ * un MySQL 8 en contenedor; sin Docker los tests se omiten.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+abstract class MySqlRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36");
+
+    @Autowired
+    protected TestEntityManager entityManager;
+
+    protected Grado grado(CursoEnum curso) {
+        Institucion institucion = new Institucion();
+        institucion.setNombre("Escuela " + curso);
+        entityManager.persist(institucion);
+        Grado grado = new Grado();
+        grado.setCurso(curso);
+        grado.setAula(AulaEnum.A);
+        grado.setInstitucion(institucion);
+        return entityManager.persist(grado);
+    }
+
+    protected Estudiante estudiante(Grado grado, String nombre) {
+        return entityManager.persist(Estudiante.builder()
+                .nombre(nombre)
+                .apellido("Prueba")
+                .dni(nombre.toUpperCase())
+                .tipoDocumento(TipoDocumentoEnum.DNI)
+                .activo(true)
+                .grado(grado)
+                .build());
+    }
+
+    protected Fecha fecha(LocalDate dia) {
+        return entityManager.persist(new Fecha(dia));
+    }
+}
@@ -0,0 +1,129 @@
+package com.foroescolar.repository;
+
+import com.foroescolar.enums.CursoEnum;
+import com.foroescolar.enums.EstadoAsistencia;
+import com.foroescolar.model.Asistencia;
+import com.foroescolar.model.Estudiante;
+import com.foroescolar.model.Fecha;
+import com.foroescolar.model.Grado;
+import com.foroescolar.model.ResumenAsistencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.foroescolar.enums.EstadoAsistencia.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ResumenAsistenciaBatchRepositoryTest extends MySqlRepositoryTest {
+
+    @Autowired
+    private AsistenciaRepository asistenciaRepository;
+    @Autowired
+    private ResumenAsistenciaRepository resumenAsistenciaRepository;
+
+    private Grado grado;
+    private Estudiante ana;
+    private Estudiante beto;
+    private Estudiante carla;
+
+    @BeforeEach
+    void setUp() {
+        grado = grado(CursoEnum.PRIMERO);
+        ana = estudiante(grado, "ana");
+        beto = estudiante(grado, "beto");
+        carla = estudiante(grado, "carla");
+    }
+
+    @Test
+    void mantieneLosContadoresConTomasCorreccionesYBajas() {
+        // Dos tomas del segundo trimestre: la segunda suma sobre las filas que creó la primera
+        Fecha lunes = tomar(LocalDate.of(2024, 5, 6), Map.of(ana.getId(), PRESENTE, beto.getId(), AUSENTE, carla.getId(), TARDE));
+        Fecha martes = tomar(LocalDate.of(2024, 5, 7), Map.of(ana.getId(), PRESENTE, beto.getId(), PRESENTE, carla.getId(), AUSENTE));
+
+        // Justificación de la ausencia de beto del lunes
+        Asistencia ausencia = asistencia(beto, lunes);
+        ausencia.setEstado(JUSTIFICADO);
+        resumenAsistenciaRepository.cambiarEstado(beto.getId(), 2024, 2, AUSENTE, JUSTIFICADO);
+
+        // Baja de la asistencia de carla del martes
+        asistenciaRepository.delete(asistencia(carla, martes));
+        resumenAsistenciaRepository.cambiarEstado(carla.getId(), 2024, 2, AUSENTE, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(resumen(2024, 2))
+                .extracting(r -> r.getId().getEstudianteId(), ResumenAsistencia::getPresentes, ResumenAsistencia::getAusentes,
+                        ResumenAsistencia::getTardes, ResumenAsistencia::getJustificados)
+                .containsExactlyInAnyOrder(
+                        tuple(ana.getId(), 2, 0, 0, 0),
+                        tuple(beto.getId(), 1, 0, 0, 1),
+                        tuple(carla.getId(), 0, 0, 1, 0));
+    }
+
+    @Test
+    void separaLosContadoresPorTrimestre() {
+        tomar(LocalDate.of(2024, 3, 28), Map.of(ana.getId(), AUSENTE));
+        tomar(LocalDate.of(2024, 4, 2), Map.of(ana.getId(), PRESENTE));
+        entityManager.clear();
+
+        assertThat(resumen(2024, 1)).extracting(ResumenAsistencia::getAusentes, ResumenAsistencia::getTotal)
+                .containsExactly(tuple(1, 1));
+        assertThat(resumen(2024, 2)).extracting(ResumenAsistencia::getPresentes, ResumenAsistencia::getTotal)
+                .containsExactly(tuple(1, 1));
+    }
+
+    @Test
+    void unCambioAlMismoEstadoNoModificaElResumen() {
+        tomar(LocalDate.of(2024, 5, 6), Map.of(ana.getId(), PRESENTE));
+
+        resumenAsistenciaRepository.cambiarEstado(ana.getId(), 2024, 2, PRESENTE, PRESENTE);
+        entityManager.clear();
+
+        assertThat(resumen(2024, 2)).extracting(ResumenAsistencia::getPresentes, ResumenAsistencia::getTotal)
+                .containsExactly(tuple(1, 1));
+    }
+
+    @Test
+    void reconstruirRecalculaElResumenDesdeLasAsistencias() {
+        tomar(LocalDate.of(2024, 5, 6), Map.of(ana.getId(), PRESENTE, beto.getId(), AUSENTE));
+        tomar(LocalDate.of(2024, 5, 7), Map.of(ana.getId(), TARDE, beto.getId(), JUSTIFICADO));
+        // Un contador desfasado (p. ej. por una modificación fuera de la aplicación)
+        resumenAsistenciaRepository.cambiarEstado(carla.getId(), 2024, 2, null, PRESENTE);
+
+        resumenAsistenciaRepository.reconstruir();
+        entityManager.clear();
+
+        assertThat(resumen(2024, 2))
+                .extracting(r -> r.getId().getEstudianteId(), ResumenAsistencia::getPresentes, ResumenAsistencia::getAusentes,
+                        ResumenAsistencia::getTardes, ResumenAsistencia::getJustificados)
+                .containsExactlyInAnyOrder(
+                        tuple(ana.getId(), 1, 0, 1, 0),
+                        tuple(beto.getId(), 0, 1, 0, 1));
+    }
+
+    // Toma de asistencia del grado como la registra AsistenciaServiceImpl
+    private Fecha tomar(LocalDate dia, Map<Long, EstadoAsistencia> estados) {
+        Fecha fecha = fecha(dia);
+        entityManager.flush();
+        asistenciaRepository.insertAll(fecha.getId(), grado.getId(), estados);
+        resumenAsistenciaRepository.registrar(fecha.getAnio(), fecha.getTrimestre(), estados);
+        return fecha;
+    }
+
+    private Asistencia asistencia(Estudiante estudiante, Fecha fecha) {
+        return asistenciaRepository.findAll().stream()
+                .filter(a -> a.getEstudiante().getId().equals(estudiante.getId()) && a.getFecha().getId().equals(fecha.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<ResumenAsistencia> resumen(int anio, int trimestre) {
+        return resumenAsistenciaRepository.findByIdEstudianteIdInAndIdAnioAndIdTrimestre(
+                List.of(ana.getId(), beto.getId(), carla.getId()), anio, trimestre);
+    }
+}
@@ -0,0 +1,136 @@
+package com.foroescolar.services.impl;
+
+import com.foroescolar.dtos.asistencia.AsistenciaDTO;
+import com.foroescolar.dtos.asistencia.PaginaAsistenciaDTO;
+import com.foroescolar.mapper.asistencia.AsistenciaMapper;
+import com.foroescolar.model.Asistencia;
+import com.foroescolar.model.Fecha;
+import com.foroescolar.repository.AsistenciaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Paginación por keyset sobre (fecha_id, id) con un repositorio en memoria que aplica
+ * la misma condición y el mismo orden que las consultas JPQL
+ */
+class AsistenciaPaginacionTest {
+
+    private final AsistenciaRepository asistenciaRepository = mock(AsistenciaRepository.class);
+    private final AsistenciaMapper asistenciaMapper = mock(AsistenciaMapper.class);
+    private final List<Asistencia> tabla = new ArrayList<>();
+
+    private AsistenciaServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        // Los ids no siguen el orden de las fechas: hay asistencias cargadas tarde para días anteriores
+        long id = 1;
+        for (long fechaId = 1; fechaId <= 60; fechaId++) {
+            for (int i = 0; i < 20; i++) {
+                tabla.add(asistencia(fechaId, fechaId % 7 == 0 ? 5_000 + id : id));
+                id++;
+            }
+        }
+        when(asistenciaRepository.findSiguientes(anyLong(), anyLong(), any(Limit.class)))
+                .thenAnswer(inv -> siguientes(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2)));
+        when(asistenciaRepository.findSiguientesByGradoId(eq(3L), anyLong(), anyLong(), any(Limit.class)))
+                .thenAnswer(inv -> siguientes(inv.getArgument(1), inv.getArgument(2), inv.getArgument(3)));
+        when(asistenciaMapper.toResponseDtoList(any())).thenAnswer(inv -> inv.<Collection<Asistencia>>getArgument(0).stream()
+                .map(asistencia -> AsistenciaDTO.builder().id(asistencia.getId()).build())
+                .toList());
+
+        service = new AsistenciaServiceImpl(asistenciaRepository, asistenciaMapper, null, null, null, null,
+                null, null, null);
+    }
+
+    @Test
+    void recorreTodasLasPaginasSinRepetirNiSaltarFilas() {
+        List<Long> leidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaAsistenciaDTO pagina = service.findPage(cursor, 7);
+            pagina.contenido().forEach(dto -> leidos.add(dto.getId()));
+            cursor = pagina.siguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(leidos).containsExactlyElementsOf(idsEnOrden());
+        assertThat(paginas).isEqualTo(1_200 / 7 + 1);
+    }
+
+    @Test
+    void unaPaginaIncompletaNoDevuelveCursor() {
+        PaginaAsistenciaDTO pagina = service.findPage(null, 1_000);
+        PaginaAsistenciaDTO ultima = service.findPage(pagina.siguienteCursor(), 1_000);
+
+        assertThat(pagina.siguienteCursor()).isNotNull();
+        assertThat(ultima.contenido()).hasSize(200);
+        assertThat(ultima.siguienteCursor()).isNull();
+    }
+
+    @Test
+    void elTamanioDePaginaSeAcota() {
+        service.findPage(null, 0);
+        service.findPage(null, 50_000);
+
+        verify(asistenciaRepository).findSiguientes(0L, 0L, Limit.of(1));
+        verify(asistenciaRepository).findSiguientes(0L, 0L, Limit.of(1_000));
+    }
+
+    @Test
+    void elStreamConsultaCadaPaginaSoloAlConsumirLaAnterior() {
+        try (Stream<AsistenciaDTO> stream = service.streamByGrado(3L)) {
+            Iterator<AsistenciaDTO> iterador = stream.iterator();
+            for (int i = 0; i < 500; i++) {
+                iterador.next();
+            }
+            verify(asistenciaRepository, times(1)).findSiguientesByGradoId(eq(3L), anyLong(), anyLong(), any(Limit.class));
+
+            iterador.next();
+            verify(asistenciaRepository, times(2)).findSiguientesByGradoId(eq(3L), anyLong(), anyLong(), any(Limit.class));
+        }
+    }
+
+    @Test
+    void elStreamDevuelveTodasLasFilasEnOrden() {
+        try (Stream<AsistenciaDTO> stream = service.streamAll()) {
+            assertThat(stream.map(AsistenciaDTO::getId)).containsExactlyElementsOf(idsEnOrden());
+        }
+    }
+
+    private List<Asistencia> siguientes(Long fechaId, Long id, Limit limit) {
+        return tabla.stream()
+                .filter(a -> a.getFecha().getId() > fechaId || (a.getFecha().getId().equals(fechaId) && a.getId() > id))
+                .sorted(Comparator.comparing((Asistencia a) -> a.getFecha().getId()).thenComparing(Asistencia::getId))
+                .limit(limit.max())
+                .toList();
+    }
+
+    private List<Long> idsEnOrden() {
+        return siguientes(0L, 0L, Limit.of(Integer.MAX_VALUE)).stream().map(Asistencia::getId).toList();
+    }
+
+    private static Asistencia asistencia(long fechaId, long id) {
+        Fecha fecha = new Fecha();
+        fecha.setId(fechaId);
+        Asistencia asistencia = new Asistencia();
+        asistencia.setId(id);
+        asistencia.setFecha(fecha);
+        return asistencia;
+    }
+}
@@ -0,0 +1,94 @@
+package com.foroescolar.services.impl;
+
+import com.foroescolar.config.redis.ClusterEventStream;
+import com.foroescolar.dtos.busqueda.ResultadoBusquedaDTO;
+import com.foroescolar.enums.RoleEnum;
+import com.foroescolar.repository.EstudianteRepository;
+import com.foroescolar.repository.UserRepository;
+import com.foroescolar.services.events.EntidadBuscableModificadaEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BusquedaServiceImplTest {
+
+    private final EstudianteRepository estudianteRepository = mock(EstudianteRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ClusterEventStream clusterEventStream = mock(ClusterEventStream.class);
+
+    private BusquedaServiceImpl servicio;
+    private Consumer<Map<String, String>> mensajesRemotos;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        servicio = new BusquedaServiceImpl(estudianteRepository, userRepository, new SimpleMeterRegistry(),
+                clusterEventStream, 100);
+        servicio.iniciar();
+        ArgumentCaptor<Consumer<Map<String, String>>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(clusterEventStream).suscribir(eq("busqueda"), captor.capture());
+        mensajesRemotos = captor.getValue();
+    }
+
+    @Test
+    void unCambioLocalSeIndexaYSePublicaSinCamposNulos() {
+        ResultadoBusquedaDTO estudiante = new ResultadoBusquedaDTO(ResultadoBusquedaDTO.TIPO_ESTUDIANTE, 7L,
+                "José", "Pérez", "12.345.678", null, RoleEnum.ROLE_ESTUDIANTE);
+
+        servicio.onEntidadBuscableModificada(new EntidadBuscableModificadaEvent(estudiante, false));
+
+        assertThat(servicio.buscar("jose", 10)).containsExactly(estudiante);
+        verify(clusterEventStream).publicar("busqueda", Map.of(
+                "tipo", "ESTUDIANTE", "id", "7", "nombre", "José", "apellido", "Pérez",
+                "dni", "12.345.678", "rol", "ROLE_ESTUDIANTE", "eliminada", "false"));
+    }
+
+    @Test
+    void losCambiosDeOtrosNodosSeAplicanSinConsultarLaBase() {
+        mensajesRemotos.accept(Map.of("tipo", "USUARIO", "id", "3", "nombre", "Ana", "apellido", "Gomez",
+                "email", "ana@correo.com", "rol", "ROLE_TUTOR", "eliminada", "false"));
+
+        assertThat(servicio.buscar("gomez", 10)).containsExactly(new ResultadoBusquedaDTO(
+                ResultadoBusquedaDTO.TIPO_USUARIO, 3L, "Ana", "Gomez", null, "ana@correo.com", RoleEnum.ROLE_TUTOR));
+
+        mensajesRemotos.accept(Map.of("tipo", "USUARIO", "id", "3", "eliminada", "true"));
+
+        assertThat(servicio.buscar("gomez", 10)).isEmpty();
+        verifyNoInteractions(estudianteRepository, userRepository);
+        verify(clusterEventStream, never()).publicar(any(), any());
+    }
+
+    @Test
+    void ignoraLosMensajesRemotosInvalidos() {
+        mensajesRemotos.accept(Map.of("tipo", "USUARIO", "id", "x", "eliminada", "false"));
+        mensajesRemotos.accept(Map.of("tipo", "USUARIO", "id", "4", "rol", "ROLE_OTRO", "eliminada", "false"));
+
+        assertThat(servicio.buscar("usuario", 10)).isEmpty();
+    }
+
+    @Test
+    void laReconstruccionReemplazaLosIndices() {
+        ResultadoBusquedaDTO viejo = new ResultadoBusquedaDTO(ResultadoBusquedaDTO.TIPO_USUARIO, 1L,
+                "Mario", "Lopez", null, null, RoleEnum.ROLE_PROFESOR);
+        ResultadoBusquedaDTO nuevo = new ResultadoBusquedaDTO(ResultadoBusquedaDTO.TIPO_USUARIO, 2L,
+                "Marta", "Lopez", null, null, RoleEnum.ROLE_PROFESOR);
+        when(userRepository.findDocumentosBusqueda()).thenReturn(List.of(viejo), List.of(nuevo));
+        when(estudianteRepository.findDocumentosBusqueda()).thenReturn(List.of());
+
+        servicio.construirIndice();
+        assertThat(servicio.buscar("lopez", 10)).containsExactly(viejo);
+
+        // Un cambio perdido (por ejemplo, con Redis caído) se corrige en la siguiente reconstrucción
+        servicio.construirIndice();
+        assertThat(servicio.buscar("lopez", 10)).containsExactly(nuevo);
+    }
+}
@@ -0,0 +1,154 @@
+package com.foroescolar.services.impl;
+
+import com.foroescolar.config.redis.RedisConfig;
+import com.foroescolar.enums.RoleEnum;
+import com.foroescolar.model.User;
+import com.foroescolar.utils.token.TokenFingerprint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Dos instancias del servicio contra el mismo Redis: las revocaciones viajan por el stream
+ */
+class TokenRevocationFeedTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private final RedisConfig redisConfig = new RedisConfig();
+    private final List<StreamMessageListenerContainer<String, MapRecord<String, String, String>>> containers = new ArrayList<>();
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = redisConfig.redisTemplate(connectionFactory);
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        containers.forEach(StreamMessageListenerContainer::stop);
+    }
+
+    @Test
+    void unaRevocacionEnUnNodoLlegaAlOtroPorElStream() {
+        TokenServiceImpl nodoA = nodo();
+        TokenServiceImpl nodoB = nodo();
+        String token = nodoA.generateToken(usuario());
+        TokenFingerprint fingerprint = TokenFingerprint.of(token);
+
+        nodoA.invalidateToken(token);
+
+        // La caché local de B solo se alimenta del stream, no de consultas a Redis
+        await().atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(nodoB.getAllBlacklistedTokens()).contains(fingerprint));
+        assertThat(nodoB.isTokenBlacklisted(token)).isTrue();
+    }
+
+    @Test
+    void unNodoNuevoCargaLasRevocacionesPrevias() {
+        TokenServiceImpl nodoA = nodo();
+        String token = nodoA.generateToken(usuario());
+        nodoA.invalidateToken(token);
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> Boolean.TRUE.equals(redisTemplate.hasKey("blacklist:" + TokenFingerprint.of(token))));
+
+        TokenServiceImpl nodoB = nodo();
+
+        assertThat(nodoB.getAllBlacklistedTokens()).contains(TokenFingerprint.of(token));
+    }
+
+    @Test
+    void sinStreamActivoLosNegativosDelFiltroSeConfirmanEnRedis() {
+        // Contenedor sin arrancar: la suscripción nunca está activa
+        StreamMessageListenerContainer<String, MapRecord<String, String, String>> detenido =
+                StreamMessageListenerContainer.create(connectionFactory);
+        containers.add(detenido);
+        TokenServiceImpl nodo = nodo(detenido);
+        String token = nodo.generateToken(usuario());
+
+        // Revocación persistida por otro nodo cuyo mensaje no llegó por el stream
+        redisTemplate.opsForValue().set("blacklist:" + TokenFingerprint.of(token), "true", 1, TimeUnit.HOURS);
+
+        assertThat(nodo.isTokenBlacklisted(token)).isTrue();
+    }
+
+    @Test
+    void migraLasClavesAntiguasDeLaListaNegra() {
+        String token = nodo().generateToken(usuario());
+        redisTemplate.opsForValue().set("blacklist:" + token, "true", 1, TimeUnit.HOURS);
+
+        TokenServiceImpl nodo = nodo();
+
+        String migrada = "blacklist:" + TokenFingerprint.of(token);
+        assertThat(redisTemplate.hasKey("blacklist:" + token)).isFalse();
+        assertThat(redisTemplate.getExpire(migrada, TimeUnit.MINUTES)).isBetween(58L, 60L);
+        assertThat(nodo.isTokenBlacklisted(token)).isTrue();
+    }
+
+    private TokenServiceImpl nodo() {
+        StreamMessageListenerContainer<String, MapRecord<String, String, String>> container =
+                redisConfig.streamMessageListenerContainer(connectionFactory);
+        containers.add(container);
+        return nodo(container);
+    }
+
+    private TokenServiceImpl nodo(StreamMessageListenerContainer<String, MapRecord<String, String, String>> container) {
+        TokenServiceImpl service = new TokenServiceImpl(redisTemplate, new SimpleMeterRegistry(), container,
+                8_388_608, 1_000, 0.001);
+        ReflectionTestUtils.setField(service, "apiSecret", "secreto-de-pruebas");
+        ReflectionTestUtils.setField(service, "verifierPoolSize", 2);
+        service.initializeMetrics();
+        service.initialize();
+        return service;
+    }
+
+    private static User usuario() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("docente@foroescolar.test");
+        user.setNombre("Docente");
+        user.setRol(RoleEnum.ROLE_ADMINISTRADOR);
+        return user;
+    }
+}
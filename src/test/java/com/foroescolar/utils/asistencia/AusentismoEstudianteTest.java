@@ -0,0 +1,135 @@
+package com.foroescolar.utils.asistencia;
+
+import com.foroescolar.enums.EstadoAsistencia;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static com.foroescolar.enums.EstadoAsistencia.AUSENTE;
+import static com.foroescolar.enums.EstadoAsistencia.JUSTIFICADO;
+import static com.foroescolar.enums.EstadoAsistencia.PRESENTE;
+import static com.foroescolar.enums.EstadoAsistencia.TARDE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AusentismoEstudianteTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 3, 4);
+
+    private final AusentismoEstudiante estudiante = new AusentismoEstudiante();
+
+    @Test
+    void laRachaCuentaAusenciasConsecutivasDesdeSuInicio() {
+        registrar(0, PRESENTE);
+        registrar(1, AUSENTE);
+        registrar(2, AUSENTE);
+        registrar(5, AUSENTE);
+
+        assertThat(estudiante.getRacha()).isEqualTo(3);
+        assertThat(estudiante.getInicioRacha()).isEqualTo(INICIO.plusDays(1));
+    }
+
+    @Test
+    void cualquierOtroEstadoCortaLaRacha() {
+        for (EstadoAsistencia corte : new EstadoAsistencia[]{PRESENTE, TARDE, JUSTIFICADO}) {
+            AusentismoEstudiante otro = new AusentismoEstudiante();
+            otro.registrar(INICIO, AUSENTE);
+            otro.registrar(INICIO.plusDays(1), corte);
+
+            assertThat(otro.getRacha()).as(corte.name()).isZero();
+            assertThat(otro.getInicioRacha()).as(corte.name()).isNull();
+        }
+    }
+
+    @Test
+    void rechazaTomasQueNoSonPosteriores() {
+        registrar(3, PRESENTE);
+
+        assertThat(estudiante.registrar(INICIO.plusDays(3), AUSENTE)).isFalse();
+        assertThat(estudiante.registrar(INICIO.plusDays(1), AUSENTE)).isFalse();
+        assertThat(estudiante.getRacha()).isZero();
+    }
+
+    @Test
+    void laTasaMovilSoloCuentaLosUltimosTreintaDias() {
+        // 40 días seguidos: ausente los 10 primeros, presente el resto
+        for (int dia = 0; dia < 40; dia++) {
+            registrar(dia, dia < 10 ? AUSENTE : PRESENTE);
+        }
+
+        AusentismoEstudiante.Conteo conteo = estudiante.contar(INICIO.plusDays(39));
+        assertThat(conteo).isEqualTo(new AusentismoEstudiante.Conteo(30, 0));
+        assertThat(conteo.tasa()).isZero();
+    }
+
+    @Test
+    void losDiasSinClaseNoCuentan() {
+        // Solo días hábiles durante cuatro semanas
+        int ausencias = 0;
+        int clases = 0;
+        for (int dia = 0; dia < 28; dia++) {
+            if (INICIO.plusDays(dia).getDayOfWeek().getValue() <= 5) {
+                EstadoAsistencia estado = dia % 5 == 0 ? AUSENTE : PRESENTE;
+                registrar(dia, estado);
+                clases++;
+                ausencias += estado == AUSENTE ? 1 : 0;
+            }
+        }
+
+        AusentismoEstudiante.Conteo conteo = estudiante.contar(INICIO.plusDays(27));
+        assertThat(conteo).isEqualTo(new AusentismoEstudiante.Conteo(clases, ausencias));
+        assertThat(conteo.tasa()).isEqualTo((double) ausencias / clases);
+    }
+
+    @Test
+    void laVentanaAvanzaConLaFechaDeReferencia() {
+        for (int dia = 0; dia < 10; dia++) {
+            registrar(dia, AUSENTE);
+        }
+
+        assertThat(estudiante.contar(INICIO.plusDays(29))).isEqualTo(new AusentismoEstudiante.Conteo(10, 10));
+        assertThat(estudiante.contar(INICIO.plusDays(34))).isEqualTo(new AusentismoEstudiante.Conteo(5, 5));
+        assertThat(estudiante.contar(INICIO.plusDays(60))).isEqualTo(new AusentismoEstudiante.Conteo(0, 0));
+        assertThat(new AusentismoEstudiante.Conteo(0, 0).tasa()).isZero();
+    }
+
+    @Test
+    void elCruceDelUmbralSeInformaUnaSolaVezHastaVolverPorDebajo() {
+        double umbral = 0.2;
+        int minimoClases = 5;
+
+        // 4 ausencias seguidas: tasa 1, pero sin el mínimo de clases
+        for (int dia = 0; dia < 4; dia++) {
+            registrar(dia, AUSENTE);
+            assertThat(estudiante.evaluarUmbral(umbral, minimoClases)).isFalse();
+        }
+
+        registrar(4, PRESENTE);
+        assertThat(estudiante.evaluarUmbral(umbral, minimoClases)).isTrue();
+        assertThat(estudiante.getEnRiesgoDesde()).isEqualTo(INICIO.plusDays(4));
+
+        registrar(5, PRESENTE);
+        assertThat(estudiante.evaluarUmbral(umbral, minimoClases)).isFalse();
+        assertThat(estudiante.getEnRiesgoDesde()).isEqualTo(INICIO.plusDays(4));
+
+        // 4/20 = 0,2 ya no supera el umbral
+        for (int dia = 6; dia < 20; dia++) {
+            registrar(dia, PRESENTE);
+            estudiante.evaluarUmbral(umbral, minimoClases);
+        }
+        assertThat(estudiante.getEnRiesgoDesde()).isNull();
+
+        registrar(20, AUSENTE);
+        assertThat(estudiante.evaluarUmbral(umbral, minimoClases)).isTrue();
+        assertThat(estudiante.getEnRiesgoDesde()).isEqualTo(INICIO.plusDays(20));
+    }
+
+    @Test
+    void sinTomasNoHayRiesgo() {
+        assertThat(estudiante.evaluarUmbral(0.0, 0)).isFalse();
+        assertThat(estudiante.contar(INICIO)).isEqualTo(new AusentismoEstudiante.Conteo(0, 0));
+    }
+
+    private void registrar(int dia, EstadoAsistencia estado) {
+        assertThat(estudiante.registrar(INICIO.plusDays(dia), estado)).isTrue();
+    }
+}
@@ -0,0 +1,51 @@
+package com.foroescolar.utils.asistencia;
+
+import com.foroescolar.exceptions.ApplicationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorAsistenciaTest {
+
+    @Test
+    void elTokenReconstruyeLaPosicion() {
+        CursorAsistencia cursor = new CursorAsistencia(20240301L, Long.MAX_VALUE);
+
+        assertThat(CursorAsistencia.of(cursor.toToken())).isEqualTo(cursor);
+    }
+
+    @Test
+    void elTokenEsSeguroEnUrls() {
+        String token = new CursorAsistencia(987654321L, 123456789L).toToken();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void sinTokenSeEmpiezaDesdeElPrincipio() {
+        assertThat(CursorAsistencia.of(null)).isEqualTo(CursorAsistencia.INICIO);
+        assertThat(CursorAsistencia.of("  ")).isEqualTo(CursorAsistencia.INICIO);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"no es base64!", "MTIz", "YTpi", "MTI6"})
+    void rechazaTokensInvalidosConBadRequest(String token) {
+        // MTIz = "123" (sin separador), YTpi = "a:b", MTI6 = "12:"
+        assertThatThrownBy(() -> CursorAsistencia.of(token))
+                .isInstanceOf(ApplicationException.class)
+                .satisfies(e -> assertThat(((ApplicationException) e).getStatus()).isEqualTo(400));
+    }
+
+    @Test
+    void rechazaTokensConDatosAjenos() {
+        String token = Base64.getUrlEncoder().encodeToString("1:2:3".getBytes(StandardCharsets.US_ASCII));
+
+        assertThatThrownBy(() -> CursorAsistencia.of(token)).isInstanceOf(ApplicationException.class);
+    }
+}
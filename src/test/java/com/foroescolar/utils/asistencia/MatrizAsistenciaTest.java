@@ -0,0 +1,152 @@
+package com.foroescolar.utils.asistencia;
+
+import com.foroescolar.dtos.asistencia.CeldaAsistenciaDTO;
+import com.foroescolar.dtos.asistencia.MatrizAsistenciaDTO;
+import com.foroescolar.enums.EstadoAsistencia;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatrizAsistenciaTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void codificaCadaEstadoEnDosBits() {
+        List<CeldaAsistenciaDTO> celdas = new ArrayList<>();
+        EstadoAsistencia[] estados = EstadoAsistencia.values();
+        for (int i = 0; i < estados.length; i++) {
+            celdas.add(new CeldaAsistenciaDTO(1L, INICIO.plusDays(i), estados[i]));
+        }
+
+        MatrizAsistenciaDTO.Fila fila = MatrizAsistencia.of(celdas).consultar(1L, null, null, 1L).estudiantes().get(0);
+
+        assertThat(fila.estados()).containsExactly(estados);
+        assertThat(List.of(fila.presentes(), fila.ausentes(), fila.tardes(), fila.justificados()))
+                .containsExactly(1, 1, 1, 1);
+    }
+
+    @Test
+    void sobrescribirUnEstadoLimpiaLosBitsAnteriores() {
+        MatrizAsistencia matriz = MatrizAsistencia.of(List.of(
+                new CeldaAsistenciaDTO(1L, INICIO, EstadoAsistencia.JUSTIFICADO)));
+
+        matriz.aplicar(INICIO, Map.of(1L, EstadoAsistencia.PRESENTE));
+
+        MatrizAsistenciaDTO.Fila fila = matriz.consultar(1L, null, null, 1L).estudiantes().get(0);
+        assertThat(fila.estados()).containsExactly(EstadoAsistencia.PRESENTE);
+        assertThat(fila.presentes()).isEqualTo(1);
+        assertThat(fila.justificados()).isZero();
+    }
+
+    @Test
+    void unEstadoNuloEliminaLaCelda() {
+        MatrizAsistencia matriz = MatrizAsistencia.of(List.of(
+                new CeldaAsistenciaDTO(1L, INICIO, EstadoAsistencia.AUSENTE)));
+        Map<Long, EstadoAsistencia> baja = new HashMap<>();
+        baja.put(1L, null);
+
+        matriz.aplicar(INICIO, baja);
+
+        MatrizAsistenciaDTO.Fila fila = matriz.consultar(1L, null, null, 1L).estudiantes().get(0);
+        assertThat(fila.estados()).containsExactly((EstadoAsistencia) null);
+        assertThat(fila.ausentes()).isZero();
+    }
+
+    @Test
+    void losConteosPorRangoCoincidenConUnRecorridoDirecto() {
+        Random random = new Random(42);
+        int dias = 200;
+        long estudiantes = 6;
+        EstadoAsistencia[][] esperado = new EstadoAsistencia[(int) estudiantes][dias];
+        List<CeldaAsistenciaDTO> celdas = new ArrayList<>();
+        for (int dia = 0; dia < dias; dia++) {
+            // El primer estudiante registra todos los días, así ninguna fecha queda fuera de la matriz
+            for (int e = 0; e < estudiantes; e++) {
+                if (e == 0 || random.nextInt(5) != 0) {
+                    EstadoAsistencia estado = EstadoAsistencia.values()[random.nextInt(4)];
+                    esperado[e][dia] = estado;
+                    celdas.add(new CeldaAsistenciaDTO((long) e, INICIO.plusDays(dia), estado));
+                }
+            }
+        }
+        MatrizAsistencia matriz = MatrizAsistencia.of(celdas);
+
+        for (int intento = 0; intento < 300; intento++) {
+            int desde = random.nextInt(dias);
+            int hasta = desde + random.nextInt(dias - desde);
+            MatrizAsistenciaDTO dto = matriz.consultar(1L, INICIO.plusDays(desde), INICIO.plusDays(hasta), null);
+
+            assertThat(dto.fechas()).hasSize(hasta - desde + 1).first().isEqualTo(INICIO.plusDays(desde));
+            for (MatrizAsistenciaDTO.Fila fila : dto.estudiantes()) {
+                EstadoAsistencia[] rango = Arrays.copyOfRange(esperado[fila.estudianteId().intValue()], desde, hasta + 1);
+                assertThat(fila.estados()).containsExactly(rango);
+                assertThat(fila.presentes()).isEqualTo(contar(rango, EstadoAsistencia.PRESENTE));
+                assertThat(fila.ausentes()).isEqualTo(contar(rango, EstadoAsistencia.AUSENTE));
+                assertThat(fila.tardes()).isEqualTo(contar(rango, EstadoAsistencia.TARDE));
+                assertThat(fila.justificados()).isEqualTo(contar(rango, EstadoAsistencia.JUSTIFICADO));
+            }
+        }
+    }
+
+    @Test
+    void losExtremosDelRangoSeAjustanALosDiasDeClase() {
+        MatrizAsistencia matriz = MatrizAsistencia.of(List.of(
+                new CeldaAsistenciaDTO(1L, INICIO, EstadoAsistencia.PRESENTE),
+                new CeldaAsistenciaDTO(1L, INICIO.plusDays(3), EstadoAsistencia.AUSENTE),
+                new CeldaAsistenciaDTO(1L, INICIO.plusDays(7), EstadoAsistencia.TARDE)));
+
+        assertThat(matriz.consultar(1L, INICIO.plusDays(1), INICIO.plusDays(6), null).fechas())
+                .containsExactly(INICIO.plusDays(3));
+        assertThat(matriz.consultar(1L, INICIO.plusDays(4), INICIO.plusDays(5), null).fechas()).isEmpty();
+        assertThat(matriz.consultar(1L, INICIO.plusDays(8), null, null).fechas()).isEmpty();
+        assertThat(matriz.consultar(1L, null, INICIO.plusDays(3), null).fechas())
+                .containsExactly(INICIO, INICIO.plusDays(3));
+    }
+
+    @Test
+    void filtraPorEstudianteYOrdenaLasFilas() {
+        MatrizAsistencia matriz = MatrizAsistencia.of(List.of(
+                new CeldaAsistenciaDTO(9L, INICIO, EstadoAsistencia.PRESENTE),
+                new CeldaAsistenciaDTO(2L, INICIO, EstadoAsistencia.AUSENTE),
+                new CeldaAsistenciaDTO(5L, INICIO, EstadoAsistencia.TARDE)));
+
+        assertThat(matriz.consultar(1L, null, null, null).estudiantes())
+                .extracting(MatrizAsistenciaDTO.Fila::estudianteId).containsExactly(2L, 5L, 9L);
+        assertThat(matriz.consultar(1L, null, null, 5L).estudiantes())
+                .extracting(MatrizAsistenciaDTO.Fila::estudianteId).containsExactly(5L);
+        assertThat(matriz.consultar(1L, null, null, 7L).estudiantes()).isEmpty();
+    }
+
+    @Test
+    void agregaDiasNuevosAlFinalPeroNoIntermedios() {
+        List<CeldaAsistenciaDTO> celdas = new ArrayList<>();
+        for (int dia = 0; dia < 64; dia++) {
+            celdas.add(new CeldaAsistenciaDTO(1L, INICIO.plusDays(2L * dia), EstadoAsistencia.PRESENTE));
+        }
+        MatrizAsistencia matriz = MatrizAsistencia.of(celdas);
+        LocalDate siguiente = INICIO.plusDays(200);
+
+        // El día 65 cruza al segundo bloque de 64 bits
+        assertThat(matriz.aplicar(siguiente, Map.of(1L, EstadoAsistencia.AUSENTE, 2L, EstadoAsistencia.TARDE))).isTrue();
+        assertThat(matriz.aplicar(INICIO.plusDays(1), Map.of(1L, EstadoAsistencia.AUSENTE))).isFalse();
+
+        MatrizAsistenciaDTO dto = matriz.consultar(1L, siguiente, siguiente, null);
+        assertThat(dto.fechas()).containsExactly(siguiente);
+        assertThat(dto.estudiantes()).extracting(MatrizAsistenciaDTO.Fila::estados)
+                .containsExactly(List.of(EstadoAsistencia.AUSENTE), List.of(EstadoAsistencia.TARDE));
+        assertThat(matriz.consultar(1L, null, null, 1L).estudiantes().get(0).presentes()).isEqualTo(64);
+    }
+
+    private static int contar(EstadoAsistencia[] estados, EstadoAsistencia estado) {
+        return (int) Arrays.stream(estados).filter(e -> e == estado).count();
+    }
+}
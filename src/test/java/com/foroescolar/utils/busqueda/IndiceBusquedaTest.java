@@ -0,0 +1,188 @@
+package com.foroescolar.utils.busqueda;
+
+import com.foroescolar.utils.busqueda.IndiceBusqueda.Coincidencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceBusquedaTest {
+
+    private IndiceBusqueda<String> indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBusqueda<>();
+    }
+
+    @Test
+    void tokenizaSinAcentosNiMayusculasYUneLosDocumentos() {
+        assertThat(IndiceBusqueda.tokenizar("José Núñez", "12.345.678", "ana-maria@correo.com", null, " "))
+                .containsExactlyInAnyOrder("jose", "nunez", "12345678", "ana", "maria", "correo", "com");
+    }
+
+    @Test
+    void ignoraAcentosEnLaConsultaYEnElDocumento() {
+        indice.indexar(1L, "jose", "José", "Pérez");
+        indice.indexar(2L, "ines", "Ines", "Gonzalez");
+
+        assertThat(ids(indice.buscar("jose perez", 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("JOSÉ PÉREZ", 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("Inés González", 10))).containsExactly(2L);
+        assertThat(indice.buscar("José Pérez", 10).get(0).puntaje()).isEqualTo(6);
+    }
+
+    @Test
+    void encuentraDocumentosPorPrefijoConOSinPuntos() {
+        indice.indexar(1L, "a", "Ana", "12.345.678");
+        indice.indexar(2L, "b", "Beto", "12399999");
+
+        assertThat(ids(indice.buscar("12345678", 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("12.345", 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("123", 10))).containsExactly(1L, 2L);
+        assertThat(indice.buscar("12.345.678", 10).get(0).puntaje()).isEqualTo(3);
+        assertThat(indice.buscar("1234", 10).get(0).puntaje()).isEqualTo(2);
+    }
+
+    @Test
+    void losDocumentosNumericosNoAdmitenErrores() {
+        indice.indexar(1L, "a", "Ana", "12345678");
+
+        assertThat(indice.buscar("12345679", 10)).isEmpty();
+        assertThat(indice.buscar("12435678", 10)).isEmpty();
+    }
+
+    @Test
+    void toleraUnErrorDeTipeoEnPalabrasDeCuatroLetras() {
+        indice.indexar(1L, "perez", "Perez");
+        indice.indexar(2L, "rodriguez", "Rodriguez");
+
+        // Sustitución, transposición, omisión e inserción
+        assertThat(ids(indice.buscar("peres", 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("pezer", 10))).isEmpty();
+        assertThat(ids(indice.buscar("perze", 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("rodriguz", 10))).containsExactly(2L);
+        assertThat(ids(indice.buscar("rodriiguez", 10))).containsExactly(2L);
+        assertThat(indice.buscar("peres", 10).get(0).puntaje()).isEqualTo(1);
+    }
+
+    @Test
+    void soloLasPalabrasDeOchoLetrasAdmitenDosErrores() {
+        indice.indexar(1L, "perez", "Perez");
+        indice.indexar(2L, "rodriguez", "Rodriguez");
+
+        assertThat(indice.buscar("pirex", 10)).isEmpty();
+        assertThat(ids(indice.buscar("rodrgues", 10))).containsExactly(2L);
+        assertThat(indice.buscar("rdrgues", 10)).isEmpty();
+    }
+
+    @Test
+    void noAdmiteErroresEnPalabrasCortasNiEnLaPrimeraLetra() {
+        indice.indexar(1L, "ana", "Ana", "Perez");
+
+        assertThat(indice.buscar("ama", 10)).isEmpty();
+        assertThat(indice.buscar("berez", 10)).isEmpty();
+    }
+
+    @Test
+    void cadaTerminoDeLaConsultaDebeCoincidir() {
+        indice.indexar(1L, "juan perez", "Juan", "Perez");
+        indice.indexar(2L, "juan gomez", "Juan", "Gomez");
+
+        assertThat(ids(indice.buscar("juan per", 10))).containsExactly(1L);
+        assertThat(indice.buscar("juan lopez", 10)).isEmpty();
+        assertThat(indice.buscar("juan xx", 10)).isEmpty();
+    }
+
+    @Test
+    void ordenaPorPuntajeYDespuesPorId() {
+        indice.indexar(3L, "exacto", "Mar");
+        indice.indexar(1L, "prefijo", "Marta");
+        indice.indexar(2L, "exacto", "Mar", "Soto");
+
+        List<Coincidencia<String>> resultado = indice.buscar("mar", 10);
+
+        assertThat(ids(resultado)).containsExactly(2L, 3L, 1L);
+        assertThat(resultado).extracting(Coincidencia::puntaje).containsExactly(3, 3, 2);
+    }
+
+    @Test
+    void devuelveLosMejoresKCuandoHayMasCoincidencias() {
+        for (long id = 1; id <= 50; id++) {
+            indice.indexar(id, "prefijo", "Martina");
+        }
+        for (long id = 51; id <= 55; id++) {
+            indice.indexar(id, "exacto", "Mar");
+        }
+
+        List<Coincidencia<String>> resultado = indice.buscar("mar", 3);
+
+        // Las coincidencias exactas completan el límite antes de bajar al nivel de prefijo;
+        // entre puntajes iguales el corte no garantiza cuáles quedan
+        assertThat(resultado).hasSize(3);
+        assertThat(resultado).extracting(Coincidencia::documento).containsOnly("exacto");
+        assertThat(resultado).extracting(Coincidencia::puntaje).containsOnly(3);
+    }
+
+    @Test
+    void bajaDeNivelHastaCompletarElLimite() {
+        indice.indexar(1L, "exacto", "Mario");
+        indice.indexar(2L, "prefijo", "Marioli");
+        indice.indexar(3L, "aproximado", "Maria");
+        indice.indexar(4L, "otro", "Pedro");
+
+        List<Coincidencia<String>> resultado = indice.buscar("mario", 3);
+
+        assertThat(ids(resultado)).containsExactly(1L, 2L, 3L);
+        assertThat(resultado).extracting(Coincidencia::puntaje).containsExactly(3, 2, 1);
+    }
+
+    @Test
+    void elCorteConsideraElPuntajeAlcanzableDelRestoDeLaConsulta() {
+        // El pivote es "gomez" (el término más selectivo); el candidato que completa "juan" de forma exacta
+        // debe ganarle al que solo coincide por prefijo aunque aparezca después en el recorrido
+        indice.indexar(1L, "prefijo", "Juanita", "Gomez");
+        indice.indexar(2L, "exacto", "Juan", "Gomez");
+        for (long id = 10; id < 40; id++) {
+            indice.indexar(id, "relleno", "Juan", "Perez");
+        }
+
+        List<Coincidencia<String>> resultado = indice.buscar("juan gomez", 1);
+
+        assertThat(ids(resultado)).containsExactly(2L);
+        assertThat(resultado.get(0).puntaje()).isEqualTo(6);
+    }
+
+    @Test
+    void reindexarYEliminarActualizanLosTerminos() {
+        indice.indexar(1L, "v1", "Perez");
+        indice.indexar(1L, "v2", "Gomez");
+
+        assertThat(indice.buscar("perez", 10)).isEmpty();
+        assertThat(indice.buscar("gomez", 10)).extracting(Coincidencia::documento).containsExactly("v2");
+        assertThat(indice.terminos()).isEqualTo(1);
+
+        indice.eliminar(1L);
+
+        assertThat(indice.buscar("gomez", 10)).isEmpty();
+        assertThat(indice.size()).isZero();
+        assertThat(indice.terminos()).isZero();
+    }
+
+    @Test
+    void calculaLaDistanciaConTransposicionesYCortaAlSuperarElMaximo() {
+        assertThat(IndiceBusqueda.distancia("perez", "perez", 1)).isZero();
+        assertThat(IndiceBusqueda.distancia("perez", "perze", 1)).isEqualTo(1);
+        assertThat(IndiceBusqueda.distancia("perez", "peres", 1)).isEqualTo(1);
+        assertThat(IndiceBusqueda.distancia("rodrgues", "rodriguez", 2)).isEqualTo(2);
+        // Por encima del máximo devuelve maximo + 1
+        assertThat(IndiceBusqueda.distancia("perez", "gomez", 1)).isEqualTo(2);
+        assertThat(IndiceBusqueda.distancia("ana", "anastasia", 2)).isEqualTo(3);
+    }
+
+    private static List<Long> ids(List<Coincidencia<String>> coincidencias) {
+        return coincidencias.stream().map(Coincidencia::id).toList();
+    }
+}
@@ -0,0 +1,47 @@
+package com.foroescolar.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadTimeExpiryTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+    private final Cache<String, Integer> cache = Caffeine.newBuilder()
+            .expireAfter(new LoadTimeExpiry<String, Integer>(Duration.ofMinutes(10)))
+            .ticker(reloj::get)
+            .build();
+
+    @Test
+    void niLasLecturasNiLasActualizacionesAlarganElPlazo() {
+        cache.put("grado", 1);
+
+        for (int minuto = 1; minuto < 10; minuto++) {
+            avanzar(Duration.ofMinutes(1));
+            assertThat(cache.getIfPresent("grado")).isNotNull();
+            cache.asMap().computeIfPresent("grado", (clave, valor) -> valor + 1);
+        }
+        avanzar(Duration.ofMinutes(1));
+
+        assertThat(cache.getIfPresent("grado")).isNull();
+    }
+
+    @Test
+    void unaNuevaCargaReiniciaElPlazo() {
+        cache.put("grado", 1);
+        avanzar(Duration.ofMinutes(10));
+        cache.put("grado", 2);
+        avanzar(Duration.ofMinutes(9));
+
+        assertThat(cache.getIfPresent("grado")).isEqualTo(2);
+    }
+
+    private void avanzar(Duration duracion) {
+        reloj.addAndGet(duracion.toNanos());
+    }
+}
@@ -0,0 +1,71 @@
+package com.foroescolar.utils.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    void contieneExactamenteLosValoresCargados() {
+        List<Long> ids = LongStream.rangeClosed(1, 1_000).map(i -> i * 7).boxed().toList();
+        LongHashSet set = LongHashSet.of(ids);
+
+        assertThat(set.size()).isEqualTo(1_000);
+        assertThat(ids).allMatch(set::contains);
+        assertThat(LongStream.rangeClosed(1, 7_000).filter(i -> i % 7 != 0).boxed())
+                .noneMatch(set::contains);
+    }
+
+    @Test
+    void ignoraDuplicadosYNulos() {
+        LongHashSet set = LongHashSet.of(Arrays.asList(5L, null, 5L, 9L, null));
+
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.contains(5L)).isTrue();
+        assertThat(set.contains(9L)).isTrue();
+        assertThat(set.contains(null)).isFalse();
+    }
+
+    @Test
+    void elCeroSeGuardaAparteDeLasCeldasVacias() {
+        assertThat(LongHashSet.of(List.of(3L)).contains(0L)).isFalse();
+
+        LongHashSet set = LongHashSet.of(List.of(0L, 0L, 3L));
+        assertThat(set.contains(0L)).isTrue();
+        assertThat(set.size()).isEqualTo(2);
+    }
+
+    @Test
+    void admiteValoresNegativosYExtremos() {
+        LongHashSet set = LongHashSet.of(List.of(-1L, Long.MIN_VALUE, Long.MAX_VALUE));
+
+        assertThat(set.contains(-1L)).isTrue();
+        assertThat(set.contains(Long.MIN_VALUE)).isTrue();
+        assertThat(set.contains(Long.MAX_VALUE)).isTrue();
+        assertThat(set.contains(1L)).isFalse();
+    }
+
+    @Test
+    void elConjuntoVacioNoContieneNada() {
+        LongHashSet set = LongHashSet.of(new ArrayList<>());
+
+        assertThat(set.size()).isZero();
+        assertThat(set.contains(0L)).isFalse();
+        assertThat(set.contains(1L)).isFalse();
+        assertThat(set.memoryBytes()).isZero();
+    }
+
+    @Test
+    void laTablaMantieneUnFactorDeCargaMaximoDeUnMedio() {
+        for (int n = 1; n <= 300; n++) {
+            LongHashSet set = LongHashSet.of(LongStream.rangeClosed(1, n).boxed().toList());
+            assertThat(set.memoryBytes() / Long.BYTES).isGreaterThanOrEqualTo(2L * n);
+        }
+    }
+}
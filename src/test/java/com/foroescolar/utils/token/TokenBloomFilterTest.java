@@ -0,0 +1,77 @@
+package com.foroescolar.utils.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBloomFilterTest {
+
+    private static final Duration GENERACION = Duration.ofHours(24);
+
+    private final AtomicLong reloj = new AtomicLong(1_000_000);
+
+    @Test
+    void noTieneFalsosNegativos() {
+        TokenBloomFilter filtro = new TokenBloomFilter(10_000, 0.001, GENERACION, reloj::get);
+        IntStream.range(0, 10_000).forEach(i -> filtro.put(TokenFingerprint.of("revocado-" + i)));
+
+        assertThat(IntStream.range(0, 10_000))
+                .allMatch(i -> filtro.mightContain(TokenFingerprint.of("revocado-" + i)));
+    }
+
+    @Test
+    void laTasaDeFalsosPositivosRespetaLaConfiguracion() {
+        TokenBloomFilter filtro = new TokenBloomFilter(10_000, 0.01, GENERACION, reloj::get);
+        IntStream.range(0, 10_000).forEach(i -> filtro.put(TokenFingerprint.of("revocado-" + i)));
+
+        long falsosPositivos = IntStream.range(0, 100_000)
+                .filter(i -> filtro.mightContain(TokenFingerprint.of("vigente-" + i)))
+                .count();
+
+        assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void lasEntradasSobrevivenUnaRotacionYSeDescartanEnLaSegunda() {
+        TokenBloomFilter filtro = new TokenBloomFilter(1_000, 0.001, GENERACION, reloj::get);
+        TokenFingerprint revocado = TokenFingerprint.of("revocado");
+        filtro.put(revocado);
+
+        reloj.addAndGet(GENERACION.toMillis());
+        assertThat(filtro.mightContain(revocado)).isTrue();
+
+        reloj.addAndGet(GENERACION.toMillis());
+        assertThat(filtro.mightContain(revocado)).isFalse();
+    }
+
+    @Test
+    void laProbabilidadEsperadaCreceConElLlenado() {
+        TokenBloomFilter filtro = new TokenBloomFilter(10_000, 0.001, GENERACION, reloj::get);
+        assertThat(filtro.expectedFalsePositiveProbability()).isZero();
+
+        IntStream.range(0, 1_000).forEach(i -> filtro.put(TokenFingerprint.of("revocado-" + i)));
+        double parcial = filtro.expectedFalsePositiveProbability();
+        assertThat(parcial).isPositive().isLessThan(0.001);
+
+        IntStream.range(1_000, 10_000).forEach(i -> filtro.put(TokenFingerprint.of("revocado-" + i)));
+        assertThat(filtro.expectedFalsePositiveProbability()).isGreaterThan(parcial).isCloseTo(0.001, within(0.0005));
+    }
+
+    @Test
+    void laRotacionVaciaLaProbabilidadEsperada() {
+        TokenBloomFilter filtro = new TokenBloomFilter(1_000, 0.001, GENERACION, reloj::get);
+        IntStream.range(0, 1_000).forEach(i -> filtro.put(TokenFingerprint.of("revocado-" + i)));
+
+        reloj.addAndGet(2 * GENERACION.toMillis());
+        filtro.mightContain(TokenFingerprint.of("revocado-0"));
+        reloj.addAndGet(GENERACION.toMillis());
+        filtro.mightContain(TokenFingerprint.of("revocado-0"));
+
+        assertThat(filtro.expectedFalsePositiveProbability()).isZero();
+    }
+}
@@ -0,0 +1,47 @@
+package com.foroescolar.utils.token;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenFingerprintTest {
+
+    @Test
+    void esElPrefijoDe128BitsDelSha256() {
+        // SHA-256("abc") = ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad
+        assertThat(TokenFingerprint.of("abc")).hasToString("ba7816bf8f01cfea414140de5dae2223");
+    }
+
+    @Test
+    void distingueCaracteresQueSoloDifierenEnElByteAlto() {
+        // U+0141 y U+0041 comparten el byte bajo: la huella debe usar los bytes UTF-8 completos
+        assertThat(TokenFingerprint.of("tokenŁ")).isNotEqualTo(TokenFingerprint.of("tokenA"));
+    }
+
+    @Test
+    void seReconstruyeDesdeSuRepresentacionHexadecimal() {
+        TokenFingerprint fingerprint = TokenFingerprint.of("eyJhbGciOiJIUzI1NiJ9.e30.firma");
+
+        assertThat(TokenFingerprint.fromString(fingerprint.toString())).isEqualTo(fingerprint);
+    }
+
+    @Test
+    void calculaLaHuellaDeValoresQueNoSonHuellas() {
+        String tokenLegado = "eyJhbGciOiJIUzI1NiJ9.e30.firma";
+
+        assertThat(TokenFingerprint.fromString(tokenLegado)).isEqualTo(TokenFingerprint.of(tokenLegado));
+    }
+
+    @Test
+    void distingueHuellasDeTokensCompletos() {
+        assertThat(TokenFingerprint.isFingerprint(TokenFingerprint.of("abc").toString())).isTrue();
+        assertThat(TokenFingerprint.isFingerprint("eyJhbGciOiJIUzI1NiJ9.e30.firma")).isFalse();
+    }
+
+    @Test
+    void elBucketQuedaDentroDelRango() {
+        for (int i = 0; i < 1000; i++) {
+            assertThat(TokenFingerprint.of("token-" + i).bucket(7)).isBetween(0, 6);
+        }
+    }
+}